@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntSupplier;
+
+/*
+ * small fixed-iteration harness: warmup, then timed iterations of a batch of operations.
+ * JMH refuses benchmark classes in the default package, which is where the walker lives
+ */
+public class BenchmarkRunner {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 10;
+
+    /* results must be consumed, otherwise the JIT may drop the work */
+    public static volatile int sink;
+
+    private final String filter;
+    private final List<String> results;
+
+    public BenchmarkRunner(String filter){
+        this.filter = filter;
+        this.results = new ArrayList<>();
+    }
+
+    public boolean isSelected(String group){
+        return filter.equals("all") || filter.equals(group);
+    }
+
+    /* one call of the operation is counted as 'opsPerCall' operations */
+    public void run(String group, String name, int opsPerCall, int callsPerIteration, IntSupplier operation){
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int local = 0;
+
+        for(int i = 0; i < WARMUP_ITERATIONS; i++){
+            for(int call = 0; call < callsPerIteration; call++){
+                local += operation.getAsInt();
+            }
+        }
+
+        double[] nanosPerOp = new double[ITERATIONS];
+        long allocated = 0;
+
+        for(int i = 0; i < ITERATIONS; i++){
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long before = System.nanoTime();
+
+            for(int call = 0; call < callsPerIteration; call++){
+                local += operation.getAsInt();
+            }
+
+            nanosPerOp[i] = (double) (System.nanoTime() - before) / ((long) opsPerCall * callsPerIteration);
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        sink += local;
+
+        double mean = 0;
+        for(double value : nanosPerOp){
+            mean += value / ITERATIONS;
+        }
+        double variance = 0;
+        for(double value : nanosPerOp){
+            variance += (value - mean) * (value - mean) / (ITERATIONS - 1);
+        }
+        double stddev = Math.sqrt(variance);
+        long bytesPerOp = allocated / ((long) ITERATIONS * opsPerCall * callsPerIteration);
+
+        System.out.println(String.format(Locale.ROOT, "%s%-40s %14.1f +- %10.1f ns/op %12d B/op",
+                Main.indentation, group + "." + name, mean, stddev, bytesPerOp));
+
+        results.add(String.format(Locale.ROOT,
+                "{\"benchmark\":\"%s.%s\",\"nsPerOp\":%.1f,\"stddev\":%.1f,\"bytesPerOp\":%d,\"iterations\":%d}",
+                group, name, mean, stddev, bytesPerOp, ITERATIONS));
+    }
+
+    /* one JSON document per run, to be diffed between commits */
+    public void write(Path file) throws IOException {
+
+        String environment = String.format(Locale.ROOT, "{\"java\":\"%s\",\"vm\":\"%s\",\"processors\":%d,\"maxHeap\":%d}",
+                System.getProperty("java.version"), System.getProperty("java.vm.name"),
+                Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory());
+
+        Files.writeString(file, "{\"environment\":" + environment + ",\"results\":[\n  "
+                + String.join(",\n  ", results) + "\n]}\n");
+    }
+}
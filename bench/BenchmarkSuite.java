@@ -0,0 +1,29 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+/*
+ * usage: java BenchmarkSuite [all|heuristics|parsing|search] [results.json]
+ * (or: mvn -Pbench package exec:exec -Dbench.args="search results.json")
+ */
+public class BenchmarkSuite {
+
+    public static void main(String[] args) throws IOException {
+
+        BenchmarkRunner runner = new BenchmarkRunner(args.length > 0 ? args[0] : "all");
+
+        if(runner.isSelected("heuristics")){
+            HeuristicBenchmarks.run(runner);
+        }
+        if(runner.isSelected("parsing")){
+            ParsingBenchmarks.run(runner);
+        }
+        if(runner.isSelected("search")){
+            SearchBenchmarks.run(runner);
+        }
+
+        if(args.length > 1){
+            runner.write(Path.of(args[1]));
+            System.out.println(Main.indentation + "results written to '" + args[1] + "'");
+        }
+    }
+}
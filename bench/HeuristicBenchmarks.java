@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/*
+ * compiled scorers vs. the per-call versions WalkerUtils used before (lowercasing + O(n*m) table),
+ * and the embedding scorer on a generated vector file
+ */
+public class HeuristicBenchmarks {
+
+    private static final int DIMENSION = 64;
+
+    public static void run(BenchmarkRunner runner) throws IOException {
+
+        SyntheticGraph graph = new SyntheticGraph(1000, 8, 100, 7);
+        Node goal = new Node(graph.getTitle(0));
+
+        List<Node> candidates = new ArrayList<>();
+        for(int page = 1; page < graph.getNumberPages(); page++){
+            candidates.add(new Node(graph.getTitle(page)));
+        }
+        int ops = candidates.size();
+
+        Preferences prefs = new Preferences();
+        prefs.setPref("vectors", writeVectors(graph).toString());
+
+        HeuristicScorer hamming = Heuristic.hamming.createScorer(goal, prefs);
+        HeuristicScorer longestSubstring = Heuristic.longest_substring.createScorer(goal, prefs);
+        HeuristicScorer embedding = Heuristic.embedding.createScorer(goal, prefs);
+
+        runner.run("heuristics", "hamming_legacy", ops, 50, () -> {
+            int sum = 0;
+            for(Node candidate : candidates){
+                sum += getHammingDistance(candidate, goal);
+            }
+            return sum;
+        });
+        runner.run("heuristics", "hamming_compiled", ops, 50, () -> score(hamming, candidates));
+
+        runner.run("heuristics", "longestSubstring_legacy", ops, 50, () -> {
+            int sum = 0;
+            for(Node candidate : candidates){
+                sum += longestSubstr(candidate.getCanonicalTitle(), goal.getCanonicalTitle());
+            }
+            return sum;
+        });
+        runner.run("heuristics", "longestSubstring_compiled", ops, 50, () -> score(longestSubstring, candidates));
+
+        runner.run("heuristics", "embedding", ops, 50, () -> score(embedding, candidates));
+    }
+
+    /* random vectors for all titles, in the text format VectorStore imports */
+    private static Path writeVectors(SyntheticGraph graph) throws IOException {
+
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder();
+
+        for(int page = 0; page < graph.getNumberPages(); page++){
+            sb.append(graph.getTitle(page).replace(' ', '_'));
+            for(int i = 0; i < DIMENSION; i++){
+                sb.append(String.format(Locale.ROOT, " %.4f", random.nextGaussian()));
+            }
+            sb.append('\n');
+        }
+
+        Path text = Files.createTempFile("wiki-walker", ".txt");
+        Path vectors = Files.createTempFile("wiki-walker", ".vectors");
+        text.toFile().deleteOnExit();
+        vectors.toFile().deleteOnExit();
+
+        Files.writeString(text, sb);
+        VectorStore.importText(text, vectors);
+        return vectors;
+    }
+
+    private static int score(HeuristicScorer scorer, List<Node> candidates){
+        double sum = 0;
+        for(Node candidate : candidates){
+            sum += scorer.score(candidate);
+        }
+        return (int) sum;
+    }
+
+    /* as in WalkerUtils before the scorers were compiled */
+    private static int getHammingDistance(Node node, Node goalNode){
+
+        String nodeTitle = node.getCanonicalTitle();
+        String goalTitle = goalNode.getCanonicalTitle();
+
+        int compareLength = Math.min(nodeTitle.length(), goalTitle.length());
+        int lengthDifference = Math.max(nodeTitle.length(), goalTitle.length()) - compareLength;
+
+        int hammingDistance = 0;
+        for(int i = 0; i < compareLength; i++){
+            hammingDistance += nodeTitle.charAt(i) != goalTitle.charAt(i) ? 1 : 0;
+        }
+        return hammingDistance + lengthDifference;
+    }
+
+    private static int longestSubstr(String first, String second) {
+        if (first == null || second == null || first.length() == 0 || second.length() == 0) {
+            return 0;
+        }
+
+        int maxLen = 0;
+        int fl = first.length();
+        int sl = second.length();
+        int[][] table = new int[fl][sl];
+
+        for (int i = 0; i < fl; i++) {
+            for (int j = 0; j < sl; j++) {
+                if (first.charAt(i) == second.charAt(j)) {
+                    if (i == 0 || j == 0) {
+                        table[i][j] = 1;
+                    }
+                    else {
+                        table[i][j] = table[i - 1][j - 1] + 1;
+                    }
+                    if (table[i][j] > maxLen) {
+                        maxLen = table[i][j];
+                    }
+                }
+            }
+        }
+        return maxLen;
+    }
+}
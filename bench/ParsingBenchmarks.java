@@ -0,0 +1,105 @@
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/* streaming ApiResponseDecoder vs. the former org.json path (DOM + toList() + one HashMap per link) */
+public class ParsingBenchmarks {
+
+    public static void run(BenchmarkRunner runner){
+
+        for(int linksPerPage : new int[]{50, 500}){
+
+            byte[] body = createResponse(linksPerPage, 10, new Random(42)).getBytes(StandardCharsets.UTF_8);
+            int links = linksPerPage * 10;
+
+            runner.run("parsing", "orgJson_" + links + "links", 1, 20, () -> decodeWithJsonObject(body));
+            runner.run("parsing", "streaming_" + links + "links", 1, 20, () -> decodeStreaming(body));
+        }
+
+        String response = createResponse(500, 10, new Random(42));
+        runner.run("parsing", "getLinksFromResponse_5000links", 1, 20,
+                () -> HttpLinkSource.getLinksFromResponse(response, Direction.forward).size());
+    }
+
+    /* the way WalkerUtils parsed responses before the streaming decoder */
+    @SuppressWarnings("unchecked")
+    private static int decodeWithJsonObject(byte[] body){
+
+        JSONObject req = new JSONObject(new String(body, StandardCharsets.UTF_8));
+        JSONObject pages = req.getJSONObject("query").getJSONObject("pages");
+        int titles = 0;
+
+        for(String pageId : pages.keySet()){
+            JSONObject page = pages.getJSONObject(pageId);
+
+            if(!page.has("links")){
+                continue;
+            }
+            for(Object obj : page.getJSONArray("links").toList()){
+                HashMap<String, Object> map = (HashMap<String, Object>) obj;
+                if(map.get("ns") == (Integer) 0){
+                    titles += ((String) map.get("title")).length() > 0 ? 1 : 0;
+                }
+            }
+        }
+        return titles;
+    }
+
+    private static int decodeStreaming(byte[] body){
+
+        int[] titles = new int[1];
+        try{
+            new ApiResponseDecoder("links", 0, (from, to) -> {
+                titles[0]++;
+                return true;
+            }).decode(new ByteArrayInputStream(body));
+        }catch(java.io.IOException e){
+            throw new IllegalStateException(e);
+        }
+        return titles[0];
+    }
+
+    /* looks like a "prop=links&pllimit=max" answer */
+    public static String createResponse(int linksPerPage, int pages, Random random){
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"continue\":{\"plcontinue\":\"12|0|Zeta\",\"continue\":\"||\"},\"query\":{\"pages\":{");
+
+        for(int page = 0; page < pages; page++){
+            if(page > 0){
+                sb.append(",");
+            }
+            sb.append("\"").append(1000 + page).append("\":{\"pageid\":").append(1000 + page)
+                    .append(",\"ns\":0,\"title\":\"Page ").append(page).append("\",\"links\":[");
+
+            for(int link = 0; link < linksPerPage; link++){
+                if(link > 0){
+                    sb.append(",");
+                }
+                sb.append("{\"ns\":0,\"title\":\"").append(randomTitle(random)).append("\"}");
+            }
+            sb.append("]}");
+        }
+        sb.append("}}}");
+        return sb.toString();
+    }
+
+    private static String randomTitle(Random random){
+
+        StringBuilder sb = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+
+        for(int word = 0; word < words; word++){
+            if(word > 0){
+                sb.append(' ');
+            }
+            sb.append((char) ('A' + random.nextInt(26)));
+            for(int i = 0, length = 3 + random.nextInt(8); i < length; i++){
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return sb.toString();
+    }
+}
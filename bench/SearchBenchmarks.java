@@ -0,0 +1,95 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.*;
+
+/* frontier operations and whole walks on a seeded synthetic graph, so no network is involved */
+public class SearchBenchmarks {
+
+    private static final int PAGES = 20000;
+    private static final int DEGREE = 8;
+    private static final int WALKS = 20;
+
+    public static void run(BenchmarkRunner runner){
+
+        SyntheticGraph graph = new SyntheticGraph(PAGES, DEGREE, 500, 11);
+        Random random = new Random(13);
+
+        /* frontier: offer a batch of scored children, then poll them all */
+        Preferences prefs = createPreferences("gbfs", "uni");
+        Node start = new Node(graph.getTitle(0)), end = new Node(graph.getTitle(1));
+        WalkerUtils walkerUtils = new WalkerUtils(prefs, new Statistics(), graph, start, end);
+
+        List<Node> children = new ArrayList<>();
+        for(int i = 0; i < 1000; i++){
+            Node child = new Node(graph.getTitle(random.nextInt(PAGES)));
+            walkerUtils.assignCostsTo(child, Direction.forward);
+            children.add(child);
+        }
+
+        /* the frontiers the walks use: IndexedHeap for the scored searches, FifoFrontier for BFS */
+        runner.run("search", "frontier_offerPoll", children.size(), 200, () -> {
+            Queue<Node> queue = new IndexedHeap(walkerUtils.getCostComparator());
+            queue.addAll(children);
+            return pollAll(queue);
+        });
+
+        runner.run("search", "frontier_fifoOfferPoll", children.size(), 200, () -> {
+            Queue<Node> queue = new FifoFrontier();
+            queue.addAll(children);
+            return pollAll(queue);
+        });
+
+        /* fixed start/goal pairs; max_links exceeds the degree, so the sampling doesn't depend on the seed */
+        List<String[]> pairs = new ArrayList<>();
+        for(int i = 0; i < WALKS; i++){
+            pairs.add(new String[]{graph.getTitle(random.nextInt(PAGES)), graph.getTitle(random.nextInt(PAGES))});
+        }
+
+        for(String[] configuration : new String[][]{{"bfs", "uni"}, {"gbfs", "uni"}, {"beam", "uni"}, {"bfs", "balanced"}}){
+
+            Preferences walkPrefs = createPreferences(configuration[0], configuration[1]);
+            Statistics stats = new Statistics();
+
+            runner.run("search", "walk_" + configuration[0] + "_" + configuration[1], WALKS, 1,
+                    () -> walkAll(walkPrefs, stats, graph, pairs));
+        }
+    }
+
+    private static int pollAll(Queue<Node> queue){
+
+        int polled = 0;
+        while(!queue.isEmpty()){
+            polled += queue.poll().getId() & 1;
+        }
+        return polled;
+    }
+
+    private static int walkAll(Preferences prefs, Statistics stats, LinkSource graph, List<String[]> pairs){
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        int requests = 0;
+        try{
+            for(String[] pair : pairs){
+                new Walker(prefs, stats, graph, pair[0], pair[1]);
+                requests += stats.getNumberOfRequests();
+            }
+        }finally{
+            System.setOut(out);
+        }
+        return requests;
+    }
+
+    private static Preferences createPreferences(String search, String searchDirection){
+
+        Preferences prefs = new Preferences();
+        prefs.setPref("verbose", "false");
+        prefs.setPref("search", search);
+        prefs.setPref("search_dir", searchDirection);
+        prefs.setPref("max_links", String.valueOf(DEGREE + 2));
+        prefs.setPref("max_req", "1000");
+        prefs.setPref("longest_substring", "true");
+        return prefs;
+    }
+}
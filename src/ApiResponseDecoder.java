@@ -0,0 +1,253 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/*
+ * decodes "action=query&prop=links|linkshere|categories" responses while they are read,
+ * handing (requested title, linked title) pairs to a LinkConsumer. no DOM, no maps per entry.
+ * normalizations and redirects (redirects=1) are followed back to the requested titles, a page
+ * answered for several of them (e.g. "UK" and "United Kingdom") hands its entries to each
+ */
+public class ApiResponseDecoder {
+
+    private final String prop;
+    private final int namespace;
+    private final LinkConsumer consumer;
+    /* null if unknown: then only titles no other title was mapped to count as requested */
+    private final Set<String> requested;
+
+    private final Map<String, String> continuation;
+    /* title -> requested titles it answers for */
+    private final Map<String, List<String>> requestedAs;
+    private final Map<String, String> resolved;
+    private boolean stopped;
+
+    /* prop is the name of the list in each page (null for none), only entries of the given namespace are handed out */
+    public ApiResponseDecoder(String prop, int namespace, LinkConsumer consumer){
+        this(prop, namespace, null, consumer);
+    }
+
+    /* the titles of the request tell pages asked for as they are apart from redirect and normalization targets */
+    public ApiResponseDecoder(String prop, int namespace, Collection<String> requested, LinkConsumer consumer){
+        this.prop = prop;
+        this.namespace = namespace;
+        this.consumer = consumer;
+        this.requested = requested == null ? null : new HashSet<>(requested);
+
+        this.continuation = new HashMap<>();
+        this.requestedAs = new HashMap<>();
+        this.resolved = new HashMap<>();
+    }
+
+    /* requested title -> title of the page answered for it, only pages that exist */
+    public Map<String, String> getResolved(){
+        return resolved;
+    }
+
+    /* returns the parameters needed for the next request, empty when done or stopped by the consumer */
+    public Map<String, String> decode(InputStream body) throws IOException {
+
+        try(JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))){
+
+            reader.beginObject();
+
+            while(!stopped && reader.hasNext()){
+                switch(reader.nextName()){
+                    case "continue":
+                        readContinuation(reader);
+                        break;
+                    case "query":
+                        readQuery(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+        }
+        /* closing early aborts the rest of the download */
+        return stopped ? new HashMap<>() : continuation;
+    }
+
+    private void readContinuation(JsonReader reader) throws IOException {
+
+        reader.beginObject();
+        while(reader.hasNext()){
+            continuation.put(reader.nextName(), reader.nextValueString());
+        }
+        reader.endObject();
+    }
+
+    private void readQuery(JsonReader reader) throws IOException {
+
+        reader.beginObject();
+        while(!stopped && reader.hasNext()){
+            switch(reader.nextName()){
+                case "normalized":
+                case "redirects":
+                    readRequestedAs(reader);
+                    break;
+                case "pages":
+                    reader.beginObject();
+                    while(!stopped && reader.hasNext()){
+                        reader.nextName();
+                        readPage(reader);
+                    }
+                    if(!stopped){
+                        reader.endObject();
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        if(!stopped){
+            reader.endObject();
+        }
+    }
+
+    /*
+     * e.g. "einstein" was asked for, normalized to "Einstein", which redirects to "Albert Einstein".
+     * the API lists normalizations before redirects
+     */
+    private void readRequestedAs(JsonReader reader) throws IOException {
+
+        reader.beginArray();
+        while(reader.hasNext()){
+            String from = null, to = null;
+
+            reader.beginObject();
+            while(reader.hasNext()){
+                String name = reader.nextName();
+                if(name.equals("from")){
+                    from = reader.nextString();
+                }else if(name.equals("to")){
+                    to = reader.nextString();
+                }else{
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if(from != null && to != null){
+                List<String> requesters = requestedAs.computeIfAbsent(to, key -> new ArrayList<>());
+                for(String requester : getRequesters(from)){
+                    if(!requesters.contains(requester)){
+                        requesters.add(requester);
+                    }
+                }
+            }
+        }
+        reader.endArray();
+    }
+
+    /* the requested titles the title answers for: those mapped to it, and itself if it was requested */
+    private List<String> getRequesters(String title){
+
+        List<String> requesters = new ArrayList<>(requestedAs.getOrDefault(title, List.of()));
+
+        if(requesters.isEmpty() || (requested != null && requested.contains(title) && !requesters.contains(title))){
+            requesters.add(title);
+        }
+        return requesters;
+    }
+
+    private void readPage(JsonReader reader) throws IOException {
+
+        String title = null;
+        List<String> from = null;
+        boolean missing = false;
+        /* only needed if the list comes before the title, which the API doesn't do */
+        List<String> early = null;
+
+        reader.beginObject();
+        while(!stopped && reader.hasNext()){
+            String name = reader.nextName();
+
+            if(name.equals("title")){
+                title = reader.nextString();
+                from = getRequesters(title);
+            }
+            else if(name.equals("missing") || name.equals("invalid")){
+                missing = true;
+                reader.skipValue();
+            }
+            else if(name.equals(prop)){
+                reader.beginArray();
+                while(!stopped && reader.hasNext()){
+                    String entry = readEntry(reader);
+
+                    if(entry == null){
+                        continue;
+                    }
+                    if(from != null){
+                        stopped = !accept(from, entry);
+                    }else{
+                        early = early == null ? new ArrayList<>() : early;
+                        early.add(entry);
+                    }
+                }
+                if(!stopped){
+                    reader.endArray();
+                }
+            }
+            else{
+                reader.skipValue();
+            }
+        }
+        if(stopped){
+            return;
+        }
+        reader.endObject();
+
+        if(title != null && !missing){
+            for(String requester : from){
+                resolved.put(requester, title);
+            }
+        }
+
+        if(early != null && from != null){
+            for(String entry : early){
+                if(!accept(from, entry)){
+                    stopped = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    /* false as soon as the consumer had enough */
+    private boolean accept(List<String> requesters, String entry){
+
+        for(String requester : requesters){
+            if(!consumer.accept(requester, entry)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* {"ns": 0, "title": "..."}, null if of another namespace */
+    private String readEntry(JsonReader reader) throws IOException {
+
+        int ns = namespace;
+        String title = null;
+
+        reader.beginObject();
+        while(reader.hasNext()){
+            String name = reader.nextName();
+
+            if(name.equals("ns")){
+                ns = reader.nextInt();
+            }else if(name.equals("title")){
+                title = reader.nextString();
+            }else{
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return ns == namespace ? title : null;
+    }
+}
@@ -0,0 +1,146 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * the API exchanges of one or more walks, one JSON object per line:
+ * {"request": "GET /w/api.php?...", "status": 200, "body": "..."}
+ * requests are relative to the base URL, so a trace recorded against Wikipedia replays on localhost
+ */
+public class ApiTrace {
+
+    private final BufferedWriter out;
+    private final Map<String, Deque<Exchange>> exchanges;
+    private int size;
+
+    private ApiTrace(BufferedWriter out){
+        this.out = out;
+        this.exchanges = new HashMap<>();
+    }
+
+    /* starts an empty trace file, every exchange is written as soon as it's added */
+    public static ApiTrace record(Path file) throws IOException {
+        return new ApiTrace(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+    public static ApiTrace load(Path file) throws IOException {
+
+        ApiTrace trace = new ApiTrace(null);
+
+        try(BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            String line;
+            while((line = in.readLine()) != null){
+                if(!line.isBlank()){
+                    trace.put(parse(line));
+                }
+            }
+        }
+        return trace;
+    }
+
+    public synchronized void add(String request, int status, String body){
+
+        Exchange exchange = new Exchange(request, status, body);
+        put(exchange);
+
+        if(out == null){
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"request\":");
+        JsonWriter.quote(sb, request);
+        sb.append(",\"status\":").append(status).append(",\"body\":");
+        JsonWriter.quote(sb, body);
+        sb.append("}");
+
+        try{
+            out.write(sb.toString());
+            out.newLine();
+            out.flush();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* repeated requests are answered in recorded order, the last answer is kept. null if never recorded */
+    public synchronized Exchange next(String request){
+
+        Deque<Exchange> answers = exchanges.get(request);
+
+        if(answers == null){
+            return null;
+        }
+        return answers.size() > 1 ? answers.poll() : answers.peek();
+    }
+
+    public synchronized int size(){
+        return size;
+    }
+
+    private void put(Exchange exchange){
+        exchanges.computeIfAbsent(exchange.request, key -> new ArrayDeque<>()).add(exchange);
+        size++;
+    }
+
+    private static Exchange parse(String line) throws IOException {
+
+        String request = null, body = "";
+        int status = 200;
+
+        try(JsonReader reader = new JsonReader(new StringReader(line))){
+            reader.beginObject();
+
+            while(reader.hasNext()){
+                switch(reader.nextName()){
+                    case "request":
+                        request = reader.nextString();
+                        break;
+                    case "status":
+                        status = reader.nextInt();
+                        break;
+                    case "body":
+                        body = reader.nextString();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        if(request == null){
+            throw new IOException("trace line without request: " + line);
+        }
+        return new Exchange(request, status, body);
+    }
+
+    public static class Exchange {
+
+        private final String request;
+        private final int status;
+        private final String body;
+
+        private Exchange(String request, int status, String body){
+            this.request = request;
+            this.status = status;
+            this.body = body;
+        }
+
+        public int getStatus(){
+            return status;
+        }
+
+        public String getBody(){
+            return body;
+        }
+    }
+}
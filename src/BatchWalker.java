@@ -0,0 +1,157 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * non-interactive mode: walks all pairs of a file, several at a time, on one link source (one
+ * HTTP client, one cache). every finished walk is written to the results as one JSON line
+ *
+ * usage: java Main batch <pairs> <results> [parallel=<#walks>] [<preference>=<value> ...]
+ * pairs: one "start<TAB>end" per line, empty lines and lines starting with '#' are skipped
+ */
+public class BatchWalker {
+
+    private final Preferences prefs;
+    private final LinkSource linkSource;
+    private final int parallel;
+
+    private BufferedWriter out;
+
+    /* of all finished walks, in nanoseconds */
+    private final List<Long> durations;
+    private int found, deadEnds, timeOuts, errors;
+
+    public BatchWalker(Preferences prefs, LinkSource linkSource, int parallel){
+        this.prefs = prefs;
+        this.linkSource = linkSource;
+        this.parallel = parallel;
+        this.durations = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if(args.length < 2){
+            System.out.println(Main.indentation + "usage: java Main batch <pairs> <results> [parallel=<#walks>] [<preference>=<value> ...]");
+            return;
+        }
+
+        Preferences prefs = new Preferences();
+        /* nobody watches the walks */
+        prefs.setPref("verbose", "false");
+        int parallel = 8;
+
+        for(int i = 2; i < args.length; i++){
+            int equals = args[i].indexOf('=');
+            if(equals < 0){
+                System.out.println(Main.indentation + "ERROR: expected option=value, got '" + args[i] + "'");
+                return;
+            }
+            String name = Main.normalize(args[i].substring(0, equals));
+            String value = args[i].substring(equals + 1);
+
+            if(name.equals("parallel")){
+                parallel = Math.max(1, Integer.parseInt(value.trim()));
+            }else{
+                prefs.setPref(name, value);
+            }
+        }
+
+        LinkSource linkSource = Main.createLinkSource(prefs);
+        try{
+            new BatchWalker(prefs, linkSource, parallel).run(readPairs(Path.of(args[0])), Path.of(args[1]));
+        }finally{
+            linkSource.close();
+        }
+    }
+
+    public static List<String[]> readPairs(Path file) throws IOException {
+
+        List<String[]> pairs = new ArrayList<>();
+        for(String line : Files.readAllLines(file, StandardCharsets.UTF_8)){
+
+            if(line.isBlank() || line.startsWith("#")){
+                continue;
+            }
+            String[] pair = line.split("\t");
+            if(pair.length != 2){
+                throw new IOException("expected 'start<TAB>end', got '" + line + "'");
+            }
+            pairs.add(new String[]{pair[0].trim(), pair[1].trim()});
+        }
+        return pairs;
+    }
+
+    public void run(List<String[]> pairs, Path results) throws IOException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallel);
+        long start = System.nanoTime();
+
+        try(BufferedWriter writer = Files.newBufferedWriter(results, StandardCharsets.UTF_8)){
+            out = writer;
+
+            List<CompletableFuture<Void>> walks = new ArrayList<>();
+            for(String[] pair : pairs){
+                walks.add(CompletableFuture.runAsync(() -> walk(pair[0], pair[1]), executor));
+            }
+            CompletableFuture.allOf(walks.toArray(new CompletableFuture<?>[0])).join();
+        }finally{
+            executor.shutdown();
+        }
+
+        printSummary(System.nanoTime() - start, results);
+    }
+
+    private void walk(String startPoint, String endPoint){
+        record(WalkResult.walk(prefs, linkSource, startPoint, endPoint));
+    }
+
+    /* results are written as soon as a walk is done */
+    private synchronized void record(WalkResult result){
+
+        try{
+            out.write(result.toJson());
+            out.newLine();
+            out.flush();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+
+        durations.add(result.getNanos());
+        switch(result.getStatus()){
+            case "found": found++; break;
+            case "time_out": timeOuts++; break;
+            case "dead_end": deadEnds++; break;
+            default: errors++;
+        }
+    }
+
+    private synchronized void printSummary(long nanos, Path results){
+
+        double minutes = nanos / 60e9;
+        long[] sorted = durations.stream().mapToLong(Long::longValue).sorted().toArray();
+
+        System.out.println(Main.indentation + "# walks: " + sorted.length + " (found: " + found + ", dead ends: " + deadEnds
+                + ", time outs: " + timeOuts + ", errors: " + errors + ")");
+        System.out.println(Main.indentation + String.format(Locale.ROOT, "throughput: %.1f walks/min (%d in parallel, %.1f s)",
+                minutes == 0 ? 0.0 : sorted.length / minutes, parallel, nanos / 1e9));
+        System.out.println(Main.indentation + String.format(Locale.ROOT, "walk latency: p50 %.0f ms, p90 %.0f ms, p99 %.0f ms, max %.0f ms",
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100)));
+        System.out.println(Main.indentation + "results written to '" + results + "'");
+    }
+
+    /* nearest rank, in milliseconds */
+    private static double percentile(long[] sorted, double percentile){
+        if(sorted.length == 0){
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+}
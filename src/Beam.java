@@ -0,0 +1,58 @@
+import java.util.*;
+
+/*
+ * the best 'width' nodes offered so far: a heap with the worst node on top, which is dropped
+ * as soon as a better one arrives. a page offered twice is kept once (the first time)
+ */
+public class Beam {
+
+    private final int width;
+    private final Comparator<Node> comparator;
+
+    private final PriorityQueue<Node> worstFirst;
+    private final Set<Integer> ids;
+
+    private long dropped;
+
+    public Beam(int width, Comparator<Node> comparator){
+        this.width = width;
+        this.comparator = comparator;
+        this.worstFirst = new PriorityQueue<>(width + 1, comparator.reversed());
+        this.ids = new HashSet<>();
+    }
+
+    /* false if the node didn't make it into the beam */
+    public boolean offer(Node node){
+
+        if(ids.contains(node.getId())){
+            return false;
+        }
+        if(worstFirst.size() == width){
+            if(comparator.compare(node, worstFirst.peek()) >= 0){
+                dropped++;
+                return false;
+            }
+            ids.remove(worstFirst.poll().getId());
+            dropped++;
+        }
+        worstFirst.add(node);
+        ids.add(node.getId());
+        return true;
+    }
+
+    public int size(){
+        return worstFirst.size();
+    }
+
+    /* nodes that didn't fit */
+    public long getDropped(){
+        return dropped;
+    }
+
+    /* best first */
+    public List<Node> toList(){
+        List<Node> nodes = new ArrayList<>(worstFirst);
+        nodes.sort(comparator);
+        return nodes;
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * visited pages of a balanced bidirectional walk, keyed by title id. both directions keep
+ * their own parent pointers so that the path can be spliced together at the meeting point
+ */
+public class BidirectionalSearch {
+
+    private static final int NONE = ExploredSet.NO_PARENT;
+
+    private final ConcurrentIntIntMap forwardParents;
+    private final ConcurrentIntIntMap backwardParents;
+
+    private final AtomicInteger meet;
+
+    public BidirectionalSearch(int start, int end){
+
+        forwardParents = new ConcurrentIntIntMap();
+        backwardParents = new ConcurrentIntIntMap();
+        meet = new AtomicInteger(NONE);
+
+        visit(start, NONE, Direction.forward);
+        visit(end, NONE, Direction.backward);
+    }
+
+    /*
+     * true if the page is new to this direction. called from several threads at once:
+     * both sides publish before they look at the other side, so at least one of two
+     * concurrent visits of the same page sees the other and no meet is missed
+     */
+    public boolean visit(int id, int parentId, Direction direction){
+
+        if(!getParents(direction).putIfAbsent(id, parentId)){
+            return false;
+        }
+        if(getParents(direction.getCounterPart()).containsKey(id)){
+            meet.compareAndSet(NONE, id);
+        }
+        return true;
+    }
+
+    public boolean hasMet(){
+        return meet.get() != NONE;
+    }
+
+    public int getNumberVisited(Direction direction){
+        return getParents(direction).size();
+    }
+
+    /* start, ..., meeting point, ..., end */
+    public List<String> getPath(){
+
+        int meetingPoint = meet.get();
+        if(meetingPoint == NONE){
+            return null;
+        }
+
+        List<String> path = new ArrayList<>();
+        for(int id = meetingPoint; id != NONE; id = forwardParents.get(id)){
+            path.add(TitleDictionary.titleOf(id));
+        }
+        Collections.reverse(path);
+
+        for(int id = backwardParents.get(meetingPoint); id != NONE; id = backwardParents.get(id)){
+            path.add(TitleDictionary.titleOf(id));
+        }
+        return path;
+    }
+
+    /* titles from the root of the direction to the visited page */
+    public List<String> getPathTo(int id, Direction direction){
+
+        List<String> path = new ArrayList<>();
+        for(; id != NONE; id = getParents(direction).get(id)){
+            path.add(TitleDictionary.titleOf(id));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private ConcurrentIntIntMap getParents(Direction direction){
+        return direction == Direction.forward ? forwardParents : backwardParents;
+    }
+}
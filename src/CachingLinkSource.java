@@ -0,0 +1,184 @@
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/* memory (LRU) -> disk (TTL) -> wrapped source. only the wrapped source counts requests */
+public class CachingLinkSource implements LinkSource {
+
+    private final LinkSource source;
+    private final MemoryCache memoryCache;
+    private final DiskCache diskCache;
+
+    public CachingLinkSource(LinkSource source, MemoryCache memoryCache, DiskCache diskCache){
+        this.source = source;
+        this.memoryCache = memoryCache;
+        this.diskCache = diskCache;
+    }
+
+    @Override
+    public boolean pageExists(String title){
+        return source.pageExists(title);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> resolveAsync(Collection<String> titles, Statistics stats){
+        return source.resolveAsync(titles, stats);
+    }
+
+    @Override
+    public String getKnownCanonical(String title){
+        return source.getKnownCanonical(title);
+    }
+
+    @Override
+    public List<String> getLinks(String title, Direction direction, Statistics stats){
+        String prop = direction == Direction.forward ? "links" : "linkshere";
+        return lookup(prop + "|" + title, stats, () -> source.getLinks(title, direction, stats));
+    }
+
+    @Override
+    public List<String> getCategories(String title, Statistics stats){
+        return lookup("categories|" + title, stats, () -> source.getCategories(title, stats));
+    }
+
+    @Override
+    public Map<String, List<String>> getLinks(Collection<String> titles, Direction direction, Statistics stats){
+        return getLinksAsync(titles, direction, stats).join();
+    }
+
+    @Override
+    public Map<String, List<String>> getCategories(Collection<String> titles, Statistics stats){
+        return getCategoriesAsync(titles, stats).join();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<String>>> getLinksAsync(Collection<String> titles, Direction direction, Statistics stats){
+        String prop = direction == Direction.forward ? "links" : "linkshere";
+        return lookup(prop + "|", titles, stats, missing -> source.getLinksAsync(missing, direction, stats));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<String>>> getCategoriesAsync(Collection<String> titles, Statistics stats){
+        return lookup("categories|", titles, stats, missing -> source.getCategoriesAsync(missing, stats));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> streamLinksAsync(Collection<String> titles, Direction direction, Statistics stats, LinkConsumer consumer){
+
+        String prefix = (direction == Direction.forward ? "links" : "linkshere") + "|";
+        List<String> missing = new ArrayList<>();
+
+        for(String title : titles){
+            List<String> cached = lookupCached(prefix + title, stats);
+
+            if(cached == null){
+                missing.add(title);
+                continue;
+            }
+            for(String link : cached){
+                if(!consumer.accept(title, link)){
+                    return CompletableFuture.completedFuture(false);
+                }
+            }
+        }
+        if(missing.isEmpty()){
+            return CompletableFuture.completedFuture(true);
+        }
+
+        stats.countCacheMisses(missing.size());
+
+        Map<String, List<String>> fetched = new HashMap<>();
+        for(String title : missing){
+            fetched.put(title, new ArrayList<>());
+        }
+
+        return source.streamLinksAsync(missing, direction, stats, (from, to) -> {
+            synchronized (fetched){
+                fetched.computeIfAbsent(from, key -> new ArrayList<>()).add(to);
+            }
+            return consumer.accept(from, to);
+
+        }).thenApply(complete -> {
+            /* a stream stopped early (or partly failed) leaves the lists incomplete */
+            if(complete){
+                fetched.forEach((title, links) -> remember(prefix + title, links));
+            }
+            return complete;
+        });
+    }
+
+    /* answers what the caches know, the rest is fetched in a single batch */
+    private CompletableFuture<Map<String, List<String>>> lookup(String prefix, Collection<String> titles, Statistics stats,
+                                             Function<List<String>, CompletableFuture<Map<String, List<String>>>> fetch){
+
+        Map<String, List<String>> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for(String title : titles){
+            List<String> cached = lookupCached(prefix + title, stats);
+
+            if(cached != null){
+                result.put(title, cached);
+            }else{
+                missing.add(title);
+            }
+        }
+        if(missing.isEmpty()){
+            return CompletableFuture.completedFuture(result);
+        }
+
+        stats.countCacheMisses(missing.size());
+
+        return fetch.apply(missing).thenApply(fetched -> {
+            for(String title : missing){
+                List<String> titlesFound = fetched.getOrDefault(title, new ArrayList<>());
+                remember(prefix + title, titlesFound);
+                result.put(title, new ArrayList<>(titlesFound));
+            }
+            return result;
+        });
+    }
+
+    private List<String> lookup(String key, Statistics stats, Supplier<List<String>> fetch){
+
+        List<String> cached = lookupCached(key, stats);
+        if(cached != null){
+            return cached;
+        }
+
+        stats.countCacheMisses(1);
+        List<String> titles = fetch.get();
+        remember(key, titles);
+
+        return new ArrayList<>(titles);
+    }
+
+    /* null on a miss */
+    private List<String> lookupCached(String key, Statistics stats){
+
+        /* callers shuffle the lists, always hand out copies */
+        String[] cached = memoryCache.get(key);
+        if(cached != null){
+            stats.countCacheHit();
+            return new ArrayList<>(Arrays.asList(cached));
+        }
+
+        List<String> titles = diskCache.get(key);
+        if(titles != null){
+            stats.countCacheHit();
+            memoryCache.put(key, titles);
+            return titles;
+        }
+        return null;
+    }
+
+    private void remember(String key, List<String> titles){
+
+        /* an empty answer might have been a failed request, don't remember it */
+        if(!titles.isEmpty()){
+            memoryCache.put(key, titles);
+            diskCache.put(key, titles);
+        }
+    }
+}
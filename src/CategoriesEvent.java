@@ -0,0 +1,18 @@
+import jdk.jfr.*;
+
+/* categories (and their ancestors) of a batch looked up and sketched */
+@Name("wikiwalker.Categories")
+@Label("Set Categories")
+@Category("Wiki-Walker")
+@Description("category lookup of a batch of nodes (WalkerUtils.setCategoriesTo)")
+public class CategoriesEvent extends Event {
+
+    @Label("Titles")
+    String titles;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Batch Size")
+    int batchSize;
+}
@@ -0,0 +1,83 @@
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/*
+ * parent categories of categories, global like the TitleDictionary: the hierarchy is a fact
+ * about Wikipedia and stays valid for every walk and every LinkSource (until the ids are reset)
+ */
+public class CategoryHierarchy {
+
+    private static final Map<Integer, int[]> parents = new ConcurrentHashMap<>();
+
+    static{
+        /* keyed by title ids, fetched again when needed */
+        TitleDictionary.onReset(parents::clear);
+    }
+
+    private CategoryHierarchy(){}
+
+    /* fetches the parents of all unknown categories up to the given depth, batch-wise per level */
+    public static CompletableFuture<Void> resolve(Collection<Integer> categories, int depth, LinkSource linkSource,
+                                                  Statistics stats, Predicate<String> keep){
+
+        if(depth <= 0 || categories.isEmpty()){
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Set<String> unknown = new HashSet<>();
+        for(int category : categories){
+            if(!parents.containsKey(category)){
+                unknown.add(TitleDictionary.titleOf(category));
+            }
+        }
+
+        CompletableFuture<Map<String, List<String>>> fetched = unknown.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : linkSource.getCategoriesAsync(unknown, stats).exceptionally(e -> Map.of());
+
+        return fetched.thenCompose(parentsByTitle -> {
+
+            parentsByTitle.forEach((title, parentTitles) -> parents.put(TitleDictionary.idOf(title),
+                    parentTitles.stream().filter(keep).mapToInt(TitleDictionary::idOf).sorted().distinct().toArray()));
+
+            Set<Integer> next = new HashSet<>();
+            for(int category : categories){
+                for(int parent : parents.getOrDefault(category, new int[0])){
+                    next.add(parent);
+                }
+            }
+            return resolve(next, depth - 1, linkSource, stats, keep);
+        });
+    }
+
+    /* the categories plus their known ancestors up to the given depth, sorted */
+    public static int[] withAncestors(int[] categories, int depth){
+
+        Set<Integer> all = new HashSet<>();
+        Collection<Integer> level = new ArrayList<>();
+        for(int category : categories){
+            all.add(category);
+            level.add(category);
+        }
+
+        for(int d = 0; d < depth && !level.isEmpty(); d++){
+            Collection<Integer> next = new ArrayList<>();
+
+            for(int category : level){
+                for(int parent : parents.getOrDefault(category, new int[0])){
+                    if(all.add(parent)){
+                        next.add(parent);
+                    }
+                }
+            }
+            level = next;
+        }
+        return all.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    public static int size(){
+        return parents.size();
+    }
+}
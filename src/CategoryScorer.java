@@ -0,0 +1,18 @@
+/* categories shared with the goal, estimated jaccard similarity of the MinHash sketches */
+public class CategoryScorer implements HeuristicScorer {
+
+    /* a perfect match is worth as much as a 10 char common substring */
+    private static final double WEIGHT = 10.0;
+
+    private final Node goalNode;
+
+    public CategoryScorer(Node goalNode){
+        /* the goal's categories may still be on their way, they are read when scoring */
+        this.goalNode = goalNode;
+    }
+
+    @Override
+    public double score(Node candidate){
+        return WEIGHT * MinHash.similarity(candidate.getCategorySketch(), goalNode.getCategorySketch());
+    }
+}
@@ -0,0 +1,195 @@
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/*
+ * single-flight: while a lookup of a title is in flight, every other walk (or direction) asking
+ * for it waits for that one instead of fetching it again. only the first asker counts the request.
+ * streamed lookups are shared among themselves, so that they keep their early stop
+ */
+public class CoalescingLinkSource implements LinkSource {
+
+    private final LinkSource source;
+
+    /*
+     * "links|Title", "linkshere|Title" or "categories|Title" -> the fetch in flight,
+     * "stream|links|Title" or "stream|linkshere|Title" -> the links of a stream, null if it is incomplete
+     */
+    private final Map<String, CompletableFuture<List<String>>> inFlight;
+
+    public CoalescingLinkSource(LinkSource source){
+        this.source = source;
+        this.inFlight = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean pageExists(String title){
+        return source.pageExists(title);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> resolveAsync(Collection<String> titles, Statistics stats){
+        return source.resolveAsync(titles, stats);
+    }
+
+    @Override
+    public String getKnownCanonical(String title){
+        return source.getKnownCanonical(title);
+    }
+
+    @Override
+    public List<String> getLinks(String title, Direction direction, Statistics stats){
+        return getLinksAsync(List.of(title), direction, stats).join().get(title);
+    }
+
+    @Override
+    public List<String> getCategories(String title, Statistics stats){
+        return getCategoriesAsync(List.of(title), stats).join().get(title);
+    }
+
+    @Override
+    public Map<String, List<String>> getLinks(Collection<String> titles, Direction direction, Statistics stats){
+        return getLinksAsync(titles, direction, stats).join();
+    }
+
+    @Override
+    public Map<String, List<String>> getCategories(Collection<String> titles, Statistics stats){
+        return getCategoriesAsync(titles, stats).join();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<String>>> getLinksAsync(Collection<String> titles, Direction direction, Statistics stats){
+        String prop = direction == Direction.forward ? "links" : "linkshere";
+        return coalesce(prop + "|", titles, stats, missing -> source.getLinksAsync(missing, direction, stats));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<String>>> getCategoriesAsync(Collection<String> titles, Statistics stats){
+        return coalesce("categories|", titles, stats, missing -> source.getCategoriesAsync(missing, stats));
+    }
+
+    /*
+     * the first asker streams from the source (stopping early as its consumer says) and keeps a copy
+     * of the links. waiters get the copy once the stream is through - or, if it stopped early (or
+     * failed in parts) and the copy is incomplete, stream the title themselves
+     */
+    @Override
+    public CompletableFuture<Boolean> streamLinksAsync(Collection<String> titles, Direction direction, Statistics stats, LinkConsumer consumer){
+
+        String prefix = "stream|" + (direction == Direction.forward ? "links" : "linkshere") + "|";
+
+        Map<String, CompletableFuture<List<String>>> futures = new LinkedHashMap<>();
+        Map<String, CompletableFuture<List<String>>> owned = new LinkedHashMap<>();
+        claim(prefix, titles, futures, owned);
+
+        List<CompletableFuture<Boolean>> parts = new ArrayList<>();
+
+        if(!owned.isEmpty()){
+            Map<String, List<String>> copies = new HashMap<>();
+            for(String title : owned.keySet()){
+                copies.put(title, new ArrayList<>());
+            }
+
+            /* chunks may arrive on different threads */
+            LinkConsumer copying = (from, to) -> {
+                List<String> copy = copies.get(from);
+                if(copy != null){
+                    synchronized (copy){
+                        copy.add(to);
+                    }
+                }
+                return consumer.accept(from, to);
+            };
+
+            parts.add(source.streamLinksAsync(new ArrayList<>(owned.keySet()), direction, stats, copying).whenComplete((complete, e) -> {
+                for(Map.Entry<String, CompletableFuture<List<String>>> entry : owned.entrySet()){
+                    inFlight.remove(prefix + entry.getKey(), entry.getValue());
+
+                    if(e != null){
+                        entry.getValue().completeExceptionally(e);
+                    }else{
+                        entry.getValue().complete(complete ? copies.get(entry.getKey()) : null);
+                    }
+                }
+            }));
+        }
+
+        for(Map.Entry<String, CompletableFuture<List<String>>> entry : futures.entrySet()){
+            if(owned.containsKey(entry.getKey())){
+                continue;
+            }
+            String title = entry.getKey();
+
+            parts.add(entry.getValue().thenCompose(links -> {
+                if(links == null){
+                    return source.streamLinksAsync(List.of(title), direction, stats, consumer);
+                }
+                stats.countCoalesced(1);
+                for(String link : links){
+                    if(!consumer.accept(title, link)){
+                        return CompletableFuture.completedFuture(false);
+                    }
+                }
+                return CompletableFuture.completedFuture(true);
+            }));
+        }
+
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> parts.stream().allMatch(CompletableFuture::join));
+    }
+
+    private CompletableFuture<Map<String, List<String>>> coalesce(String prefix, Collection<String> titles, Statistics stats,
+                                                                  Function<List<String>, CompletableFuture<Map<String, List<String>>>> fetch){
+
+        Map<String, CompletableFuture<List<String>>> futures = new LinkedHashMap<>();
+        Map<String, CompletableFuture<List<String>>> owned = new LinkedHashMap<>();
+
+        claim(prefix, titles, futures, owned);
+        stats.countCoalesced(futures.size() - owned.size());
+
+        if(!owned.isEmpty()){
+            fetch.apply(new ArrayList<>(owned.keySet())).whenComplete((result, e) -> {
+                for(Map.Entry<String, CompletableFuture<List<String>>> entry : owned.entrySet()){
+
+                    /* later askers fetch again (or find it in the cache) */
+                    inFlight.remove(prefix + entry.getKey(), entry.getValue());
+
+                    if(e != null){
+                        entry.getValue().completeExceptionally(e);
+                    }else{
+                        entry.getValue().complete(result.getOrDefault(entry.getKey(), List.of()));
+                    }
+                }
+            });
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    /* every waiter gets its own copy */
+                    Map<String, List<String>> result = new HashMap<>();
+                    for(Map.Entry<String, CompletableFuture<List<String>>> entry : futures.entrySet()){
+                        result.put(entry.getKey(), new ArrayList<>(entry.getValue().join()));
+                    }
+                    return result;
+                });
+    }
+
+    /* the future of every title, those of the titles nobody else is fetching are new and 'owned' */
+    private void claim(String prefix, Collection<String> titles, Map<String, CompletableFuture<List<String>>> futures,
+                       Map<String, CompletableFuture<List<String>>> owned){
+
+        for(String title : titles){
+            if(futures.containsKey(title)){
+                continue;
+            }
+            CompletableFuture<List<String>> created = new CompletableFuture<>();
+            CompletableFuture<List<String>> existing = inFlight.putIfAbsent(prefix + title, created);
+
+            futures.put(title, existing == null ? created : existing);
+            if(existing == null){
+                owned.put(title, created);
+            }
+        }
+    }
+}
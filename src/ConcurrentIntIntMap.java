@@ -0,0 +1,54 @@
+/* IntIntHashMap split into independently locked segments, so that threads rarely wait on each other */
+public class ConcurrentIntIntMap {
+
+    private static final int SEGMENTS = 64;
+
+    private final IntIntHashMap[] segments;
+
+    public ConcurrentIntIntMap(){
+        segments = new IntIntHashMap[SEGMENTS];
+
+        for(int i = 0; i < SEGMENTS; i++){
+            segments[i] = new IntIntHashMap();
+        }
+    }
+
+    /* -1 if absent */
+    public int get(int key){
+        IntIntHashMap segment = segmentOf(key);
+        synchronized (segment){
+            return segment.get(key);
+        }
+    }
+
+    public boolean containsKey(int key){
+        IntIntHashMap segment = segmentOf(key);
+        synchronized (segment){
+            return segment.containsKey(key);
+        }
+    }
+
+    /* false (and nothing changes) if the key is present already */
+    public boolean putIfAbsent(int key, int value){
+        IntIntHashMap segment = segmentOf(key);
+        synchronized (segment){
+            return segment.putIfAbsent(key, value);
+        }
+    }
+
+    public int size(){
+        int size = 0;
+
+        for(IntIntHashMap segment : segments){
+            synchronized (segment){
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private IntIntHashMap segmentOf(int key){
+        /* the upper bits pick the segment, IntIntHashMap uses the lower ones */
+        return segments[(IntIntHashMap.mix(key) >>> 26) & (SEGMENTS - 1)];
+    }
+}
@@ -0,0 +1,93 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/* one file per key: first line is the key, every further line a title. old files expire */
+public class DiskCache {
+
+    private final Path directory;
+    private final long ttlMillis;
+
+    public DiskCache(Path directory, long ttlMillis) throws IOException {
+        this.directory = directory;
+        this.ttlMillis = ttlMillis;
+
+        Files.createDirectories(directory);
+        evictExpired();
+    }
+
+    /* null if absent or expired */
+    public List<String> get(String key){
+
+        Path file = fileOf(key);
+
+        try{
+            if(isExpired(file)){
+                Files.deleteIfExists(file);
+                return null;
+            }
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+            /* hash collision or truncated file */
+            if(lines.isEmpty() || !lines.get(0).equals(key)){
+                return null;
+            }
+            return new ArrayList<>(lines.subList(1, lines.size()));
+
+        }catch(IOException e){
+            return null;
+        }
+    }
+
+    public void put(String key, List<String> titles){
+
+        List<String> lines = new ArrayList<>(titles.size() + 1);
+        lines.add(key);
+        lines.addAll(titles);
+
+        try{
+            /* write aside and move, readers never see half a file */
+            Path temp = Files.createTempFile(directory, "entry", ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, fileOf(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }catch(IOException e){
+            /* the cache is an optimization only */
+        }
+    }
+
+    public void evictExpired() throws IOException {
+
+        try(Stream<Path> files = Files.list(directory)){
+            for(Path file : (Iterable<Path>) files::iterator){
+                if(isExpired(file)){
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private boolean isExpired(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() + ttlMillis < System.currentTimeMillis();
+    }
+
+    private Path fileOf(String key){
+
+        try{
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+
+            for(int i = 0; i < 16; i++){
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return directory.resolve(sb.toString());
+
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+import java.nio.file.Path;
+
+/* cosine similarity of the page vectors (see VectorStore), pages without a vector score 0 */
+public class EmbeddingScorer implements HeuristicScorer {
+
+    /* as much as a perfect category match */
+    private static final double WEIGHT = 10.0;
+
+    private final VectorStore store;
+    /* null if the goal has no vector, nothing can be said then */
+    private final float[] goal;
+
+    public EmbeddingScorer(Node goalNode, Path vectorFile){
+        this.store = VectorStore.open(vectorFile);
+
+        int row = store.getRow(goalNode);
+        this.goal = row == VectorStore.NONE ? null : store.getVector(row);
+    }
+
+    @Override
+    public double score(Node candidate){
+
+        if(goal == null){
+            return 0.0;
+        }
+        int row = store.getRow(candidate);
+
+        /* [-1; 1] mapped to [0; WEIGHT], pages without a vector come last */
+        return row == VectorStore.NONE ? 0.0 : WEIGHT * (1.0 + store.cosine(goal, row)) / 2.0;
+    }
+}
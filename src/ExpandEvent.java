@@ -0,0 +1,21 @@
+import jdk.jfr.*;
+
+/* links of a batch fetched and sampled, categories looked up and costs assigned */
+@Name("wikiwalker.Expand")
+@Label("Expand")
+@Category("Wiki-Walker")
+@Description("expansion of a batch of frontier nodes (WalkerUtils.expandAt)")
+public class ExpandEvent extends Event {
+
+    @Label("Titles")
+    String titles;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Children")
+    int children;
+}
@@ -0,0 +1,33 @@
+/* ids of the explored pages together with the id of the page they were reached from */
+public class ExploredSet {
+
+    public static final int NO_PARENT = -1;
+
+    private final ConcurrentIntIntMap parents;
+
+    public ExploredSet(){
+        parents = new ConcurrentIntIntMap();
+    }
+
+    /* false if the node was explored already */
+    public boolean add(Node node){
+        return parents.putIfAbsent(node.getId(), node.getParentId());
+    }
+
+    public boolean contains(int id){
+        return parents.containsKey(id);
+    }
+
+    public boolean contains(Node node){
+        return contains(node.getId());
+    }
+
+    /* NO_PARENT for the roots */
+    public int getParentId(int id){
+        return parents.get(id);
+    }
+
+    public int size(){
+        return parents.size();
+    }
+}
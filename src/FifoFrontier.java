@@ -0,0 +1,48 @@
+import java.util.*;
+
+/*
+ * BFS frontier: first in, first out, and every page is queued once at most. the first time a page
+ * is offered is the shortest way to it, so later offers are rejected right away
+ */
+public class FifoFrontier extends AbstractQueue<Node> {
+
+    private final ArrayDeque<Node> queue;
+
+    /* ids of every page ever offered */
+    private final IntIntHashMap seen;
+
+    public FifoFrontier(){
+        this.queue = new ArrayDeque<>();
+        this.seen = new IntIntHashMap(64);
+    }
+
+    /* false if the page was offered before */
+    @Override
+    public boolean offer(Node node){
+
+        if(!seen.putIfAbsent(node.getId(), 0)){
+            return false;
+        }
+        return queue.offer(node);
+    }
+
+    @Override
+    public Node poll(){
+        return queue.poll();
+    }
+
+    @Override
+    public Node peek(){
+        return queue.peek();
+    }
+
+    @Override
+    public int size(){
+        return queue.size();
+    }
+
+    @Override
+    public Iterator<Node> iterator(){
+        return queue.iterator();
+    }
+}
@@ -0,0 +1,22 @@
+import jdk.jfr.*;
+
+/* one poll or offer on a frontier queue */
+@Name("wikiwalker.Frontier")
+@Label("Frontier Operation")
+@Category("Wiki-Walker")
+@Description("poll or offer on the priority queue / FIFO of a walk")
+@StackTrace(false)
+public class FrontierEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Title")
+    String title;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Frontier Size")
+    int frontierSize;
+}
@@ -0,0 +1,491 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/*
+ * turns the page, pagelinks and categorylinks sql dumps (optionally gzipped) of
+ * dumps.wikimedia.org into the graph file read by WikiGraph. current dumps name the targets of
+ * links (and categories) by an id of the linktarget table, which is read first then
+ *
+ * usage: java GraphImporter page.sql.gz [linktarget.sql.gz] pagelinks.sql.gz categorylinks.sql.gz out.graph
+ */
+public class GraphImporter {
+
+    private final Map<Integer, Integer> pageIdToId = new HashMap<>();
+    private final Map<String, Integer> titleToId = new HashMap<>();
+    private byte[][] titles;
+
+    private final Map<String, Integer> categoryToIndex = new HashMap<>();
+    private final List<String> categories = new ArrayList<>();
+
+    /* linktarget id -> page id (namespace 0) or category index (namespace 14) */
+    private final IntIntHashMap targetToId = new IntIntHashMap();
+    private final IntIntHashMap targetToCategory = new IntIntHashMap();
+    private boolean linkTargetsRead;
+
+    private final EdgeList links = new EdgeList();
+    private final EdgeList categoryLinks = new EdgeList();
+
+    public void readPages(Path path) throws IOException {
+
+        Map<Integer, String> pages = new HashMap<>();
+
+        /* (page_id, page_namespace, page_title, ...) */
+        new SqlDumpReader(path).forEachTuple(fields -> {
+            if(fields.size() > 2 && "0".equals(fields.get(1))){
+                pages.put(Integer.parseInt(fields.get(0)), fields.get(2));
+            }
+        });
+
+        /* ids are the ranks of the titles so that lookups can use binary search */
+        titles = pages.values().stream()
+                .map(title -> title.getBytes(StandardCharsets.UTF_8))
+                .sorted(Arrays::compareUnsigned)
+                .toArray(byte[][]::new);
+
+        for(int id = 0; id < titles.length; id++){
+            titleToId.put(new String(titles[id], StandardCharsets.UTF_8), id);
+        }
+        for(Map.Entry<Integer, String> page : pages.entrySet()){
+            pageIdToId.put(page.getKey(), titleToId.get(page.getValue()));
+        }
+    }
+
+    /* (lt_id, lt_namespace, lt_title), needs the pages */
+    public void readLinkTargets(Path path) throws IOException {
+
+        SqlDumpReader reader = new SqlDumpReader(path);
+        List<String> columns = reader.readColumns();
+
+        int idColumn = getColumn(path, columns, "lt_id", 0);
+        int namespaceColumn = getColumn(path, columns, "lt_namespace", 1);
+        int titleColumn = getColumn(path, columns, "lt_title", 2);
+
+        reader.forEachTuple(fields -> {
+            int target = parseId(fields.get(idColumn));
+            String namespace = fields.get(namespaceColumn);
+
+            if("0".equals(namespace)){
+                Integer to = titleToId.get(fields.get(titleColumn));
+                if(to != null){
+                    targetToId.put(target, to);
+                }
+            }else if("14".equals(namespace)){
+                targetToCategory.put(target, getCategoryIndex(fields.get(titleColumn)));
+            }
+        });
+        linkTargetsRead = true;
+    }
+
+    /*
+     * (pl_from, pl_namespace, pl_title, pl_from_namespace) up to 2024,
+     * (pl_from, pl_from_namespace, pl_target_id) since - the target is a linktarget id
+     */
+    public void readPageLinks(Path path) throws IOException {
+
+        SqlDumpReader reader = new SqlDumpReader(path);
+        List<String> columns = reader.readColumns();
+
+        int fromColumn = getColumn(path, columns, "pl_from", 0);
+
+        if(columns.isEmpty() || columns.contains("pl_title")){
+            int namespaceColumn = getColumn(path, columns, "pl_namespace", 1);
+            int titleColumn = getColumn(path, columns, "pl_title", 2);
+
+            reader.forEachTuple(fields -> {
+                if("0".equals(fields.get(namespaceColumn))){
+                    addLink(pageIdToId.get(Integer.parseInt(fields.get(fromColumn))), titleToId.get(fields.get(titleColumn)));
+                }
+            });
+        }else if(columns.contains("pl_target_id")){
+            int targetColumn = requireLinkTargets(path, columns, "pl_target_id");
+
+            reader.forEachTuple(fields -> {
+                int to = targetToId.get(parseId(fields.get(targetColumn)));
+                addLink(pageIdToId.get(Integer.parseInt(fields.get(fromColumn))), to < 0 ? null : to);
+            });
+        }else{
+            throw new IOException("'" + path + "': unknown pagelinks schema " + columns);
+        }
+    }
+
+    private void addLink(Integer from, Integer to){
+        if(from != null && to != null && !from.equals(to)){
+            links.add(from, to);
+        }
+    }
+
+    /*
+     * (cl_from, cl_to, cl_sortkey, ...) up to 2025,
+     * (cl_from, cl_sortkey, ..., cl_target_id) since - the category is a linktarget id
+     */
+    public void readCategoryLinks(Path path) throws IOException {
+
+        SqlDumpReader reader = new SqlDumpReader(path);
+        List<String> columns = reader.readColumns();
+
+        int fromColumn = getColumn(path, columns, "cl_from", 0);
+
+        if(columns.isEmpty() || columns.contains("cl_to")){
+            int toColumn = getColumn(path, columns, "cl_to", 1);
+
+            reader.forEachTuple(fields -> {
+                Integer from = pageIdToId.get(Integer.parseInt(fields.get(fromColumn)));
+                if(from != null){
+                    categoryLinks.add(from, getCategoryIndex(fields.get(toColumn)));
+                }
+            });
+        }else if(columns.contains("cl_target_id")){
+            int targetColumn = requireLinkTargets(path, columns, "cl_target_id");
+
+            reader.forEachTuple(fields -> {
+                Integer from = pageIdToId.get(Integer.parseInt(fields.get(fromColumn)));
+                int index = targetToCategory.get(parseId(fields.get(targetColumn)));
+
+                if(from != null && index >= 0){
+                    categoryLinks.add(from, index);
+                }
+            });
+        }else{
+            throw new IOException("'" + path + "': unknown categorylinks schema " + columns);
+        }
+    }
+
+    private int getCategoryIndex(String category){
+
+        Integer index = categoryToIndex.get(category);
+        if(index == null){
+            index = categories.size();
+            categoryToIndex.put(category, index);
+            categories.add(category);
+        }
+        return index;
+    }
+
+    private int requireLinkTargets(Path path, List<String> columns, String column) throws IOException {
+        if(!linkTargetsRead){
+            throw new IOException("'" + path + "' names its targets by '" + column + "', the linktarget dump is needed as well");
+        }
+        return getColumn(path, columns, column, -1);
+    }
+
+    /* the position of the column, the given one for dumps without a CREATE TABLE statement */
+    private static int getColumn(Path path, List<String> columns, String column, int position) throws IOException {
+
+        if(columns.isEmpty()){
+            return position;
+        }
+        int index = columns.indexOf(column);
+        if(index < 0){
+            throw new IOException("'" + path + "' has no column '" + column + "' " + columns);
+        }
+        return index;
+    }
+
+    /* linktarget ids are bigints, the tables hold far less than 2^31 rows so far */
+    private static int parseId(String field){
+
+        long id = Long.parseLong(field);
+        if(id > Integer.MAX_VALUE){
+            throw new IllegalStateException("linktarget id " + id + " out of range");
+        }
+        return (int) id;
+    }
+
+    public void write(Path path) throws IOException {
+
+        /* category ids are ranks as well */
+        byte[][] categoryTitles = categories.stream()
+                .map(category -> category.getBytes(StandardCharsets.UTF_8))
+                .sorted(Arrays::compareUnsigned)
+                .toArray(byte[][]::new);
+
+        int[] indexToCategoryId = new int[categories.size()];
+        for(int id = 0; id < categoryTitles.length; id++){
+            String category = new String(categoryTitles[id], StandardCharsets.UTF_8);
+            indexToCategoryId[categoryToIndex.get(category)] = id;
+        }
+        categoryLinks.mapTargets(indexToCategoryId);
+
+        try(GraphWriter writer = new GraphWriter(path)){
+
+            writer.skip(WikiGraph.HEADER_SIZE);
+
+            long pageTitles = writer.writeStrings(titles);
+            long categoryPosition = writer.writeStrings(categoryTitles);
+            long forward = writer.writeAdjacency(links, titles.length, false);
+            long backward = writer.writeAdjacency(links, titles.length, true);
+            long pageCategories = writer.writeAdjacency(categoryLinks, titles.length, false);
+
+            writer.writeHeader(titles.length, categoryTitles.length,
+                    pageTitles, categoryPosition, forward, backward, pageCategories);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if(args.length != 4 && args.length != 5){
+            System.out.println("usage: GraphImporter <page.sql[.gz]> [<linktarget.sql[.gz]>] <pagelinks.sql[.gz]> <categorylinks.sql[.gz]> <out.graph>");
+            return;
+        }
+        GraphImporter importer = new GraphImporter();
+        int next = 0;
+
+        importer.readPages(Path.of(args[next++]));
+        System.out.println(Main.indentation + "pages: " + importer.titles.length);
+
+        if(args.length == 5){
+            importer.readLinkTargets(Path.of(args[next++]));
+            System.out.println(Main.indentation + "link targets: " + (importer.targetToId.size() + importer.targetToCategory.size()));
+        }
+
+        importer.readPageLinks(Path.of(args[next++]));
+        System.out.println(Main.indentation + "links: " + importer.links.size());
+
+        importer.readCategoryLinks(Path.of(args[next++]));
+        System.out.println(Main.indentation + "category links: " + importer.categoryLinks.size());
+
+        if(importer.links.size() == 0 && importer.titles.length > 1){
+            System.out.println(Main.indentation + "ERROR: no links imported, do the pagelinks belong to the page dump?");
+            return;
+        }
+        importer.write(Path.of(args[next]));
+    }
+
+    /*
+     * (from, to) pairs packed into longs, in chunks: a full dump has more links than a single array
+     * can hold. the last chunk grows by doubling until it is full, then the next one starts
+     */
+    private static class EdgeList {
+
+        private static final int CHUNK_BITS = 26;
+        private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+        private final List<long[]> chunks = new ArrayList<>();
+        private long size;
+
+        void add(int from, int to){
+
+            int offset = (int) (size & (CHUNK_SIZE - 1));
+
+            if(offset == 0){
+                chunks.add(new long[1024]);
+            }
+            long[] chunk = chunks.get(chunks.size() - 1);
+            if(offset == chunk.length){
+                chunk = Arrays.copyOf(chunk, Math.min(chunk.length * 2, CHUNK_SIZE));
+                chunks.set(chunks.size() - 1, chunk);
+            }
+            chunk[offset] = ((long) from << 32) | (to & 0xffffffffL);
+            size++;
+        }
+
+        long size(){
+            return size;
+        }
+
+        private long get(long i){
+            return chunks.get((int) (i >>> CHUNK_BITS))[(int) (i & (CHUNK_SIZE - 1))];
+        }
+
+        int from(long i){
+            return (int) (get(i) >>> 32);
+        }
+
+        int to(long i){
+            return (int) get(i);
+        }
+
+        void mapTargets(int[] mapping){
+            for(int c = 0; c < chunks.size(); c++){
+                long[] chunk = chunks.get(c);
+                int filled = (int) Math.min(chunk.length, size - ((long) c << CHUNK_BITS));
+
+                for(int i = 0; i < filled; i++){
+                    chunk[i] = (chunk[i] & 0xffffffff00000000L) | (mapping[(int) chunk[i]] & 0xffffffffL);
+                }
+            }
+        }
+    }
+
+    /* a fixed number of ints, indexed by long */
+    private static class IntChunks {
+
+        private static final int CHUNK_BITS = 27;
+        private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+        private final int[][] chunks;
+
+        IntChunks(long size){
+            chunks = new int[(int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS)][];
+
+            for(int i = 0; i < chunks.length; i++){
+                chunks[i] = new int[(int) Math.min(CHUNK_SIZE, size - ((long) i << CHUNK_BITS))];
+            }
+        }
+
+        int get(long i){
+            return chunks[(int) (i >>> CHUNK_BITS)][(int) (i & (CHUNK_SIZE - 1))];
+        }
+
+        void set(long i, int value){
+            chunks[(int) (i >>> CHUNK_BITS)][(int) (i & (CHUNK_SIZE - 1))] = value;
+        }
+
+        /* [from; to), a range across chunks is sorted in a copy */
+        void sort(long from, long to){
+
+            if(to - from < 2){
+                return;
+            }
+            int chunk = (int) (from >>> CHUNK_BITS);
+            if(chunk == (int) ((to - 1) >>> CHUNK_BITS)){
+                Arrays.sort(chunks[chunk], (int) (from & (CHUNK_SIZE - 1)), (int) (((to - 1) & (CHUNK_SIZE - 1)) + 1));
+                return;
+            }
+            int[] range = new int[(int) (to - from)];
+            for(int i = 0; i < range.length; i++){
+                range[i] = get(from + i);
+            }
+            Arrays.sort(range);
+            for(int i = 0; i < range.length; i++){
+                set(from + i, range[i]);
+            }
+        }
+    }
+
+    private static class GraphWriter implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        GraphWriter(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long position() throws IOException {
+            return channel.position() + buffer.position();
+        }
+
+        void skip(int bytes) throws IOException {
+            for(int i = 0; i < bytes; i++){
+                put((byte) 0);
+            }
+        }
+
+        /* long[n + 1] offsets followed by the concatenated strings */
+        long writeStrings(byte[][] strings) throws IOException {
+            long start = position();
+            long offset = 0;
+
+            putLong(offset);
+            for(byte[] string : strings){
+                offset += string.length;
+                putLong(offset);
+            }
+            for(byte[] string : strings){
+                for(byte b : string){
+                    put(b);
+                }
+            }
+            align();
+            return start;
+        }
+
+        /* long[n + 1] offsets followed by the int targets, grouped by source (counting sort) */
+        long writeAdjacency(EdgeList edges, int numberNodes, boolean reverse) throws IOException {
+            long start = position();
+
+            long[] offsets = new long[numberNodes + 1];
+            for(long i = 0; i < edges.size(); i++){
+                offsets[(reverse ? edges.to(i) : edges.from(i)) + 1]++;
+            }
+            for(int node = 0; node < numberNodes; node++){
+                offsets[node + 1] += offsets[node];
+            }
+
+            IntChunks targets = new IntChunks(edges.size());
+            long[] next = Arrays.copyOf(offsets, numberNodes);
+            for(long i = 0; i < edges.size(); i++){
+                int from = reverse ? edges.to(i) : edges.from(i);
+                int to = reverse ? edges.from(i) : edges.to(i);
+                targets.set(next[from]++, to);
+            }
+
+            /* sorted neighbourhoods make the file deterministic */
+            for(int node = 0; node < numberNodes; node++){
+                targets.sort(offsets[node], offsets[node + 1]);
+            }
+
+            for(long offset : offsets){
+                putLong(offset);
+            }
+            for(long i = 0; i < edges.size(); i++){
+                putInt(targets.get(i));
+            }
+            align();
+            return start;
+        }
+
+        void writeHeader(int numberPages, int numberCategories, long... sections) throws IOException {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(WikiGraph.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            header.putInt(WikiGraph.MAGIC).putInt(WikiGraph.VERSION);
+            header.putInt(numberPages).putInt(numberCategories);
+            for(long section : sections){
+                header.putLong(section);
+            }
+            header.clear();
+            channel.write(header, 0);
+        }
+
+        private void align() throws IOException {
+            while(position() % 8 != 0){
+                put((byte) 0);
+            }
+        }
+
+        private void put(byte b) throws IOException {
+            ensure(1);
+            buffer.put(b);
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        private void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if(buffer.remaining() < bytes){
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+/* answers lookups from the memory-mapped offline graph, no network involved */
+public class GraphLinkSource implements LinkSource {
+
+    private final Path path;
+    private final WikiGraph graph;
+
+    /* loaded for the first A* walk */
+    private Landmarks landmarks;
+
+    /* parallel_bfs searches no walk is using, and their pools (bfs_threads -> pool), until close */
+    private final Queue<ParallelBfs> idleSearches;
+    private final Map<Integer, ForkJoinPool> pools;
+
+    public GraphLinkSource(Path path) throws IOException {
+        this.path = path;
+        this.graph = new WikiGraph(path);
+        this.idleSearches = new ConcurrentLinkedQueue<>();
+        this.pools = new ConcurrentHashMap<>();
+    }
+
+    public WikiGraph getGraph(){
+        return graph;
+    }
+
+    /* read from "<graph>.landmarks", computed (and written there) first if it's missing or has another k */
+    public synchronized Landmarks getLandmarks(int k) throws IOException {
+
+        if(landmarks != null && landmarks.getNumberLandmarks() == Math.min(k, graph.getNumberPages())){
+            return landmarks;
+        }
+        Path landmarksFile = Landmarks.getPath(path);
+
+        if(Files.exists(landmarksFile)){
+            Landmarks stored = new Landmarks(landmarksFile);
+            if(stored.getNumberPages() == graph.getNumberPages() && stored.getNumberLandmarks() == Math.min(k, graph.getNumberPages())){
+                return landmarks = stored;
+            }
+        }
+        System.out.println(Main.indentation + "computing " + k + " landmarks of '" + path + "' ...");
+        Landmarks.compute(graph, k, landmarksFile);
+        return landmarks = new Landmarks(landmarksFile);
+    }
+
+    /* an idle search of the graph, a new one if all are in use. give it back with releaseSearch */
+    public ParallelBfs acquireSearch(){
+        ParallelBfs idle = idleSearches.poll();
+        return idle != null ? idle : new ParallelBfs(graph);
+    }
+
+    public void releaseSearch(ParallelBfs search){
+        idleSearches.offer(search);
+    }
+
+    /* the common pool for 0 threads, otherwise one pool per number of threads */
+    public ForkJoinPool getPool(int threads){
+        return threads == 0 ? ForkJoinPool.commonPool() : pools.computeIfAbsent(threads, ForkJoinPool::new);
+    }
+
+    /* drops the idle searches and shuts the pools down, once no walk uses this source anymore */
+    @Override
+    public void close(){
+        idleSearches.clear();
+        pools.values().forEach(ForkJoinPool::shutdown);
+        pools.clear();
+    }
+
+    @Override
+    public boolean pageExists(String title){
+        return graph.getId(title) >= 0;
+    }
+
+    @Override
+    public List<String> getLinks(String title, Direction direction, Statistics stats){
+
+        /* lookups are free but still count, so that max_req keeps bounding the walk */
+        stats.countRequest();
+        return toTitles(graph.getId(title), id -> graph.getNeighbours(id, direction), graph::getTitle);
+    }
+
+    @Override
+    public List<String> getCategories(String title, Statistics stats){
+        stats.countRequest();
+        return toTitles(graph.getId(title), graph::getCategories, graph::getCategoryTitle);
+    }
+
+    private static List<String> toTitles(int id, IntFunction<int[]> adjacency, IntFunction<String> toTitle){
+
+        List<String> titles = new ArrayList<>();
+
+        if(id < 0){
+            return titles;
+        }
+        for(int adjacent : adjacency.apply(id)){
+            titles.add(toTitle.apply(adjacent));
+        }
+        return titles;
+    }
+
+    /* one lookup per batch, just like a multi-title API request */
+
+    @Override
+    public Map<String, List<String>> getLinks(Collection<String> titles, Direction direction, Statistics stats){
+        Map<String, List<String>> links = new HashMap<>();
+        stats.countRequest();
+
+        for(String title : titles){
+            links.put(title, toTitles(graph.getId(title), id -> graph.getNeighbours(id, direction), graph::getTitle));
+        }
+        return links;
+    }
+
+    @Override
+    public Map<String, List<String>> getCategories(Collection<String> titles, Statistics stats){
+        Map<String, List<String>> categories = new HashMap<>();
+        stats.countRequest();
+
+        for(String title : titles){
+            categories.put(title, toTitles(graph.getId(title), graph::getCategories, graph::getCategoryTitle));
+        }
+        return categories;
+    }
+}
@@ -0,0 +1,37 @@
+/* prefer a small hamming distance (plus length difference) to the goal's canonical title */
+public class HammingScorer implements HeuristicScorer {
+
+    private final char[] goal;
+
+    public HammingScorer(Node goalNode){
+        this.goal = toLowerCase(goalNode.getTitle());
+    }
+
+    @Override
+    public double score(Node candidate){
+        return 1.0 / getDistance(candidate.getTitle());
+    }
+
+    /* compares lower case chars on the fly instead of building the canonical title */
+    public int getDistance(String title){
+
+        int compareLength = Math.min(title.length(), goal.length);
+        int lengthDifference = Math.max(title.length(), goal.length) - compareLength;
+
+        int hammingDistance = 0;
+        for(int i = 0; i < compareLength; i++){
+            hammingDistance += Character.toLowerCase(title.charAt(i)) != goal[i] ? 1 : 0;
+        }
+        return hammingDistance + lengthDifference;
+    }
+
+    /* char by char, the same way candidates are compared */
+    static char[] toLowerCase(String title){
+        char[] chars = new char[title.length()];
+
+        for(int i = 0; i < chars.length; i++){
+            chars[i] = Character.toLowerCase(title.charAt(i));
+        }
+        return chars;
+    }
+}
@@ -1,4 +1,21 @@
+import java.nio.file.Path;
 
 public enum Heuristic{
-    hamming, longest_substring, most_categories;
+    hamming, longest_substring, most_categories, embedding;
+
+    /* compiles the heuristic for one goal, new heuristics only need a scorer and a case here */
+    public HeuristicScorer createScorer(Node goalNode, Preferences prefs){
+        switch(this){
+            case hamming:
+                return new HammingScorer(goalNode);
+            case longest_substring:
+                return new LongestSubstringScorer(goalNode);
+            case most_categories:
+                return new CategoryScorer(goalNode);
+            case embedding:
+                return new EmbeddingScorer(goalNode, Path.of(prefs.getVectorFile()));
+            default:
+                throw new IllegalStateException("no scorer for " + this);
+        }
+    }
 }
@@ -0,0 +1,8 @@
+/*
+ * rates a candidate with respect to the goal the scorer was compiled for, higher is better.
+ * compiled once per walk and direction, scoring must not allocate and may run on several threads
+ */
+public interface HeuristicScorer {
+
+    public double score(Node candidate);
+}
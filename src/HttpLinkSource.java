@@ -0,0 +1,367 @@
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/* asks the MediaWiki API (of en.wikipedia.org or a stand-in), up to 50 titles per request */
+public class HttpLinkSource implements LinkSource {
+
+    /* the API refuses more titles per query (for non-bots) */
+    public static final int MAX_TITLES = 50;
+
+    public static final String WIKIPEDIA = "https://en.wikipedia.org";
+
+    private final HttpClient client;
+    private final RequestScheduler scheduler;
+    private final String api;
+
+    /* null if nothing is recorded */
+    private final ApiTrace trace;
+
+    /* canonical titles, looked up with "redirects=1" and learned from every answer */
+    private final TitleResolver titles;
+
+    public HttpLinkSource(){
+        this(WIKIPEDIA, null, 20, 4);
+    }
+
+    /* at most maxRate requests per second, failed ones are retried up to 'retries' times */
+    public HttpLinkSource(String base, ApiTrace trace, double maxRate, int retries){
+        this.client = HttpClient.newHttpClient();
+        this.scheduler = new RequestScheduler(client, maxRate, retries);
+        /* the API refuses to answer while its replicas lag more than 5 s behind, instead of answering slowly */
+        this.api = base + "/w/api.php?action=query&format=json&maxlag=5";
+        this.trace = trace;
+        this.titles = new TitleResolver(this::queryTitles);
+    }
+
+    @Override
+    public boolean pageExists(String title){
+        try{
+            return !resolveAsync(List.of(title), new Statistics()).join().isEmpty();
+        }catch(RuntimeException e){
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> resolveAsync(Collection<String> titles, Statistics stats){
+        return this.titles.resolveAsync(titles, stats);
+    }
+
+    @Override
+    public String getKnownCanonical(String title){
+        return titles.getKnownCanonical(title);
+    }
+
+    /* normalized titles -> canonical titles of the pages that exist, up to 50 titles per request */
+    private CompletableFuture<Map<String, String>> queryTitles(List<String> titles, Statistics stats){
+
+        Map<String, String> resolved = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+        for(int from = 0; from < titles.size(); from += MAX_TITLES){
+
+            List<String> chunk = titles.subList(from, Math.min(from + MAX_TITLES, titles.size()));
+            String titleParam = URLEncoder.encode(String.join("|", chunk), StandardCharsets.UTF_8);
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(api + "&redirects=1&titles=" + titleParam))
+                    .header("accept", "application/json")
+                    .header("accept-encoding", "gzip, deflate")
+                    .build();
+
+            chunks.add(send(request, stats).thenAccept(body -> {
+                stats.countRequest();
+                decode(body, null, 0, chunk, (page, entry) -> true, resolved);
+            }));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(done -> resolved);
+    }
+
+    @Override
+    public List<String> getLinks(String title, Direction direction, Statistics stats){
+        return getLinks(List.of(title), direction, stats).get(title);
+    }
+
+    @Override
+    public List<String> getCategories(String title, Statistics stats){
+        return getCategories(List.of(title), stats).get(title);
+    }
+
+    @Override
+    public Map<String, List<String>> getLinks(Collection<String> titles, Direction direction, Statistics stats){
+        return getLinksAsync(titles, direction, stats).join();
+    }
+
+    @Override
+    public Map<String, List<String>> getCategories(Collection<String> titles, Statistics stats){
+        return getCategoriesAsync(titles, stats).join();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<String>>> getLinksAsync(Collection<String> titles, Direction direction, Statistics stats){
+        return collect(titles, consumer -> streamLinksAsync(titles, direction, stats, consumer));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, List<String>>> getCategoriesAsync(Collection<String> titles, Statistics stats){
+        /* asking for ALL categories not that more expensive, keep most valuable */
+        return collect(titles, consumer -> query(titles, "categories", 14, "&cllimit=max", stats, consumer));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> streamLinksAsync(Collection<String> titles, Direction direction, Statistics stats, LinkConsumer consumer){
+
+        if(direction == Direction.forward){
+            return query(titles, "links", 0, "&pllimit=max&plnamespace=0", stats, consumer);
+        }
+        return query(titles, "linkshere", 0, "&lhlimit=max&lhnamespace=0", stats, consumer);
+    }
+
+    private static CompletableFuture<Map<String, List<String>>> collect(Collection<String> titles,
+                                                                      Function<LinkConsumer, CompletableFuture<Boolean>> stream){
+
+        /* lists are never null */
+        Map<String, List<String>> result = new HashMap<>();
+        for(String title : titles){
+            result.put(title, new ArrayList<>());
+        }
+
+        /* chunks arrive on different threads */
+        return stream.apply((from, to) -> {
+            synchronized (result){
+                result.computeIfAbsent(from, key -> new ArrayList<>()).add(to);
+            }
+            return true;
+        }).thenApply(complete -> {
+            /* nothing stops this stream, so it's incomplete because a page failed: no partial lists */
+            if(!complete){
+                throw new RuntimeException("ERROR: a lookup of " + titles.size() + " titles failed");
+            }
+            return result;
+        });
+    }
+
+    /*
+     * one query per chunk of titles (all in flight at once), each following "continue" until its
+     * pages are complete or the consumer had enough. completes with false if stopped early or if a
+     * page failed after all retries - the other chunks still hand out their links
+     */
+    private CompletableFuture<Boolean> query(Collection<String> titles, String prop, int namespace, String limits,
+                                             Statistics stats, LinkConsumer consumer){
+
+        List<String> remaining = new ArrayList<>(new LinkedHashSet<>(titles));
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicBoolean failed = new AtomicBoolean();
+
+        /* once stopped, no chunk hands out anything */
+        LinkConsumer guarded = (from, to) -> {
+            if(stopped.get() || !consumer.accept(from, to)){
+                stopped.set(true);
+                return false;
+            }
+            return true;
+        };
+
+        for(int from = 0; from < remaining.size(); from += MAX_TITLES){
+
+            List<String> chunk = remaining.subList(from, Math.min(from + MAX_TITLES, remaining.size()));
+            chunks.add(queryChunk(chunk, prop, namespace, limits, new HashMap<>(), stats, guarded, stopped, failed));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(done -> !stopped.get() && !failed.get());
+    }
+
+    private CompletableFuture<Void> queryChunk(List<String> chunk, String prop, int namespace, String limits,
+                                               Map<String, String> continuation, Statistics stats,
+                                               LinkConsumer consumer, AtomicBoolean stopped, AtomicBoolean failed){
+
+        String titleParam = URLEncoder.encode(String.join("|", chunk), StandardCharsets.UTF_8);
+
+        /* redirects are answered with the links of their target */
+        StringBuilder uri = new StringBuilder(api + "&prop=" + prop + limits + "&redirects=1&titles=" + titleParam);
+        for(Map.Entry<String, String> entry : continuation.entrySet()){
+            uri.append("&").append(entry.getKey()).append("=")
+                    .append(URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri.toString()))
+                .header("accept", "application/json")
+                /* link lists shrink to a fraction, the HttpClient doesn't ask by itself */
+                .header("accept-encoding", "gzip, deflate")
+                .build();
+
+        long sent = System.nanoTime();
+
+        return send(request, stats)
+                .thenCompose(body -> {
+                    stats.countRequest();
+                    stats.recordLatency(prop, System.nanoTime() - sent);
+
+                    long parseStart = System.nanoTime();
+
+                    Map<String, String> resolved = new HashMap<>();
+                    Map<String, String> next = decode(body, prop, namespace, chunk, consumer, resolved);
+                    stats.recordParse(System.nanoTime() - parseStart);
+
+                    resolved.forEach(titles::learn);
+
+                    /* no need to fetch more pages once the consumer is satisfied */
+                    if(next.isEmpty() || stopped.get()){
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    return queryChunk(chunk, prop, namespace, limits, next, stats, consumer, stopped, failed);
+                })
+                /* keep what arrived so far, but not silently - and not as a complete list */
+                .exceptionally(e -> {
+                    stats.countFailure();
+                    failed.set(true);
+                    return null;
+                });
+    }
+
+    /* the body is decompressed and decoded while it downloads, unless it has to be recorded in full */
+    private CompletableFuture<InputStream> send(HttpRequest request, Statistics stats){
+
+        if(trace == null){
+            return scheduler.send(request, HttpResponse.BodyHandlers.ofInputStream(), stats)
+                    .thenApply(response -> decompress(response, new CountingInputStream(response.body(), stats)));
+        }
+        return scheduler.send(request, HttpResponse.BodyHandlers.ofByteArray(), stats)
+                .thenApply(response -> {
+                    stats.countBytes(response.body().length);
+
+                    /* traces hold plain bodies, the stand-in compresses them itself */
+                    byte[] body;
+                    try(InputStream in = decompress(response, new ByteArrayInputStream(response.body()))){
+                        body = in.readAllBytes();
+                    }catch(IOException e){
+                        throw new UncheckedIOException(e);
+                    }
+                    trace.add(getTraceKey(request), response.statusCode(), new String(body, StandardCharsets.UTF_8));
+                    return new ByteArrayInputStream(body);
+                });
+    }
+
+    /* according to the Content-Encoding of the response */
+    private static InputStream decompress(HttpResponse<?> response, InputStream body){
+
+        String encoding = response.headers().firstValue("content-encoding").orElse("identity").trim();
+
+        try{
+            switch(encoding){
+                case "gzip":
+                    return new GZIPInputStream(body, 8192);
+                case "deflate":
+                    /* HTTP's "deflate" is the zlib format */
+                    return new InflaterInputStream(body, new Inflater(), 8192);
+                default:
+                    return body;
+            }
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* e.g. "GET /w/api.php?action=query&...", independent of the base URL */
+    public static String getTraceKey(HttpRequest request){
+        URI uri = request.uri();
+        return request.method() + " " + uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+    }
+
+    /* bytes as they come over the wire (compressed), counted while they are read so max_bytes is up to date */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final Statistics stats;
+
+        private CountingInputStream(InputStream in, Statistics stats){
+            super(in);
+            this.stats = stats;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if(b >= 0){
+                stats.countBytes(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if(n > 0){
+                stats.countBytes(n);
+            }
+            return n;
+        }
+    }
+
+    /* forward and backward responses have to be parsed differently */
+
+    public static Map<String, List<String>> getLinksFromResponse(String body, Direction direction){
+
+        Map<String, List<String>> links = new HashMap<>();
+        InputStream in = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+
+        decode(in, direction == Direction.forward ? "links" : "linkshere", 0, null, (from, to) -> {
+            links.computeIfAbsent(from, key -> new ArrayList<>()).add(to);
+            return true;
+        }, new HashMap<>());
+        return links;
+    }
+
+    /* the canonical titles of the requested pages go to 'resolved', requested is null if unknown */
+    private static Map<String, String> decode(InputStream body, String prop, int namespace, Collection<String> requested,
+                                              LinkConsumer consumer, Map<String, String> resolved){
+
+        ParseEvent event = new ParseEvent();
+        event.begin();
+
+        /* only looked at while recording */
+        String[] first = new String[1];
+        int[] entries = new int[1];
+        LinkConsumer observed = !event.isEnabled() ? consumer : (from, to) -> {
+            first[0] = first[0] == null ? from : first[0];
+            entries[0]++;
+            return consumer.accept(from, to);
+        };
+
+        try{
+            ApiResponseDecoder decoder = new ApiResponseDecoder(prop, namespace, requested, observed);
+            Map<String, String> continuation = decoder.decode(body);
+
+            resolved.putAll(decoder.getResolved());
+            return continuation;
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }finally{
+            event.end();
+            if(event.shouldCommit()){
+                event.title = first[0];
+                event.direction = "links".equals(prop) ? Direction.forward.name()
+                        : "linkshere".equals(prop) ? Direction.backward.name() : null;
+                event.prop = prop;
+                event.entries = entries[0];
+                event.commit();
+            }
+        }
+    }
+}
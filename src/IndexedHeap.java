@@ -0,0 +1,136 @@
+import java.util.*;
+
+/*
+ * priority frontier with one entry per page: a 4-ary heap plus the position of every page in it.
+ * a page offered again is rejected, unless it got cheaper - then its entry is updated in place
+ * (decrease-key). pages that left the heap are never taken back, they are explored already
+ */
+public class IndexedHeap extends AbstractQueue<Node> {
+
+    private static final int ARITY = 4;
+
+    /* position of a page that was polled */
+    private static final int POLLED = Integer.MAX_VALUE;
+
+    private final Comparator<Node> comparator;
+
+    private Node[] heap;
+    private int size;
+
+    /* page id -> position in the heap or POLLED */
+    private final IntIntHashMap positions;
+
+    public IndexedHeap(Comparator<Node> comparator){
+        this.comparator = comparator;
+        this.heap = new Node[64];
+        this.positions = new IntIntHashMap(64);
+    }
+
+    /* false if the page is (or was) in the heap and isn't cheaper now */
+    @Override
+    public boolean offer(Node node){
+
+        int position = positions.get(node.getId());
+
+        if(position == POLLED){
+            return false;
+        }
+        if(position >= 0){
+            if(comparator.compare(node, heap[position]) >= 0){
+                return false;
+            }
+            heap[position] = node;
+            siftUp(position);
+            return true;
+        }
+
+        if(size == heap.length){
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = node;
+        positions.put(node.getId(), size);
+        siftUp(size++);
+        return true;
+    }
+
+    @Override
+    public Node poll(){
+
+        if(size == 0){
+            return null;
+        }
+        Node first = heap[0];
+        positions.put(first.getId(), POLLED);
+
+        Node last = heap[--size];
+        heap[size] = null;
+
+        if(size > 0){
+            heap[0] = last;
+            positions.put(last.getId(), 0);
+            siftDown(0);
+        }
+        return first;
+    }
+
+    @Override
+    public Node peek(){
+        return size == 0 ? null : heap[0];
+    }
+
+    @Override
+    public int size(){
+        return size;
+    }
+
+    /* in heap order, not sorted */
+    @Override
+    public Iterator<Node> iterator(){
+        return Arrays.asList(Arrays.copyOf(heap, size)).iterator();
+    }
+
+    private void siftUp(int position){
+
+        Node node = heap[position];
+
+        while(position > 0){
+            int parent = (position - 1) / ARITY;
+            if(comparator.compare(node, heap[parent]) >= 0){
+                break;
+            }
+            move(heap[parent], position);
+            position = parent;
+        }
+        move(node, position);
+    }
+
+    private void siftDown(int position){
+
+        Node node = heap[position];
+
+        while(true){
+            int first = position * ARITY + 1;
+            if(first >= size){
+                break;
+            }
+            /* the cheapest of up to ARITY children */
+            int best = first;
+            for(int child = first + 1; child < Math.min(first + ARITY, size); child++){
+                if(comparator.compare(heap[child], heap[best]) < 0){
+                    best = child;
+                }
+            }
+            if(comparator.compare(heap[best], node) >= 0){
+                break;
+            }
+            move(heap[best], position);
+            position = best;
+        }
+        move(node, position);
+    }
+
+    private void move(Node node, int position){
+        heap[position] = node;
+        positions.put(node.getId(), position);
+    }
+}
@@ -0,0 +1,104 @@
+import java.util.Arrays;
+
+/* int -> int map with open addressing (linear probing), keys must not be negative */
+public class IntIntHashMap {
+
+    private static final int FREE = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntHashMap(){
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize){
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+    }
+
+    /* -1 if absent */
+    public int get(int key){
+        int slot = find(keys, key);
+        return keys[slot] == key ? values[slot] : -1;
+    }
+
+    public boolean containsKey(int key){
+        return keys[find(keys, key)] == key;
+    }
+
+    /* returns the previous value, -1 if there was none */
+    public int put(int key, int value){
+        int slot = find(keys, key);
+
+        if(keys[slot] == key){
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(slot, key, value);
+        return -1;
+    }
+
+    /* false (and nothing changes) if the key is present already */
+    public boolean putIfAbsent(int key, int value){
+        int slot = find(keys, key);
+
+        if(keys[slot] == key){
+            return false;
+        }
+        insert(slot, key, value);
+        return true;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    private void insert(int slot, int key, int value){
+        keys[slot] = key;
+        values[slot] = value;
+
+        /* keep the load factor below 1/2 */
+        if(++size * 2 > keys.length){
+            grow();
+        }
+    }
+
+    private void grow(){
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, FREE);
+
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldKeys[i] != FREE){
+                int slot = find(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /* slot of the key or the free slot where it belongs */
+    private static int find(int[] keys, int key){
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+
+        while(keys[slot] != FREE && keys[slot] != key){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    static int mix(int key){
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,207 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
+/*
+ * minimal pull parser for well-formed JSON, reads straight from the stream and
+ * never builds a tree. commas and colons are treated as whitespace
+ */
+public class JsonReader implements Closeable {
+
+    private final Reader in;
+    private final char[] buffer;
+    private int position, limit;
+
+    /* reused for every string */
+    private final StringBuilder sb;
+
+    public JsonReader(Reader in){
+        this.in = in;
+        this.buffer = new char[8192];
+        this.sb = new StringBuilder();
+    }
+
+    public void beginObject() throws IOException {
+        expect('{');
+    }
+
+    public void endObject() throws IOException {
+        expect('}');
+    }
+
+    public void beginArray() throws IOException {
+        expect('[');
+    }
+
+    public void endArray() throws IOException {
+        expect(']');
+    }
+
+    /* true if the current object or array has more members */
+    public boolean hasNext() throws IOException {
+        int c = peek();
+        return c != '}' && c != ']';
+    }
+
+    public String nextName() throws IOException {
+        return nextString();
+    }
+
+    public String nextString() throws IOException {
+
+        expect('"');
+        sb.setLength(0);
+
+        while(true){
+            char c = read();
+
+            if(c == '"'){
+                return sb.toString();
+            }
+            if(c != '\\'){
+                sb.append(c);
+                continue;
+            }
+            c = read();
+            switch(c){
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    int code = 0;
+                    for(int i = 0; i < 4; i++){
+                        code = (code << 4) | Character.digit(read(), 16);
+                    }
+                    sb.append((char) code);
+                    break;
+                default: sb.append(c);
+            }
+        }
+    }
+
+    public int nextInt() throws IOException {
+
+        int c = peek();
+        boolean negative = c == '-';
+        if(negative){
+            position++;
+        }
+
+        int value = 0;
+        while(fill() && buffer[position] >= '0' && buffer[position] <= '9'){
+            value = value * 10 + (buffer[position++] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /* strings as they are, numbers and literals as written */
+    public String nextValueString() throws IOException {
+
+        if(peek() == '"'){
+            return nextString();
+        }
+        sb.setLength(0);
+        while(fill() && !isDelimiter(buffer[position])){
+            sb.append(buffer[position++]);
+        }
+        return sb.toString();
+    }
+
+    public void skipValue() throws IOException {
+
+        int c = peek();
+
+        if(c == '"'){
+            skipString();
+        }
+        else if(c == '{' || c == '['){
+            int depth = 0;
+            do {
+                c = peek();
+                if(c == '"'){
+                    skipString();
+                    continue;
+                }
+                position++;
+                if(c == '{' || c == '['){
+                    depth++;
+                }else if(c == '}' || c == ']'){
+                    depth--;
+                }
+            } while(depth > 0);
+        }
+        else {
+            while(fill() && !isDelimiter(buffer[position])){
+                position++;
+            }
+        }
+    }
+
+    private void skipString() throws IOException {
+        expect('"');
+
+        while(true){
+            char c = read();
+            if(c == '"'){
+                return;
+            }
+            if(c == '\\'){
+                read();
+            }
+        }
+    }
+
+    /* next significant character without consuming it */
+    private int peek() throws IOException {
+
+        while(fill()){
+            char c = buffer[position];
+
+            if(c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ',' || c == ':'){
+                position++;
+                continue;
+            }
+            return c;
+        }
+        throw new EOFException("unexpected end of json");
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peek();
+
+        if(c != expected){
+            throw new IOException("expected '" + expected + "' but found '" + (char) c + "'");
+        }
+        position++;
+    }
+
+    private char read() throws IOException {
+        if(!fill()){
+            throw new EOFException("unexpected end of json");
+        }
+        return buffer[position++];
+    }
+
+    /* false at the end of the stream */
+    private boolean fill() throws IOException {
+
+        if(position < limit){
+            return true;
+        }
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        return limit > 0;
+    }
+
+    private static boolean isDelimiter(char c){
+        return c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
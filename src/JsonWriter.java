@@ -0,0 +1,34 @@
+/* the writing counterpart of JsonReader: just enough to produce API responses and trace lines */
+public class JsonWriter {
+
+    public static String quote(String string){
+        StringBuilder sb = new StringBuilder(string.length() + 2);
+        quote(sb, string);
+        return sb.toString();
+    }
+
+    public static void quote(StringBuilder sb, String string){
+
+        sb.append('"');
+        for(int i = 0; i < string.length(); i++){
+            char c = string.charAt(i);
+
+            switch(c){
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\b': sb.append("\\b"); break;
+                case '\f': sb.append("\\f"); break;
+                default:
+                    if(c < 0x20){
+                        sb.append(String.format("\\u%04x", (int) c));
+                    }else{
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,247 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/*
+ * ALT (A*, landmarks, triangle inequality): BFS distances from and to k hub pages of the offline
+ * graph, one byte per page and landmark. for every landmark L they bound the distance of two pages:
+ *   d(v, t) >= d(L, t) - d(L, v)   and   d(v, t) >= d(v, L) - d(t, L)
+ *
+ * layout of "<graph>.landmarks" (little endian):
+ *   header    : magic, version, #pages, #landmarks, landmark ids (int[#landmarks], padded to 8 bytes)
+ *   distances : per landmark byte[#pages] from the landmark, then byte[#pages] to the landmark
+ *
+ * usage: java Landmarks <graph> [#landmarks]
+ */
+public class Landmarks {
+
+    public static final int MAGIC = 0x314c5757; /* "WWL1" */
+    public static final int VERSION = 1;
+
+    /* distances of FAR and more are stored as FAR, they only bound from below */
+    private static final int FAR = 254;
+    private static final int UNREACHABLE = 255;
+
+    /* returned if the triangle inequality proves that there is no path */
+    public static final int NO_PATH = Integer.MAX_VALUE;
+
+    private final MappedFile file;
+    private final int numberPages;
+    private final int[] landmarks;
+    private final long distances;
+
+    public Landmarks(Path path) throws IOException {
+
+        file = new MappedFile(path);
+
+        if(file.size() < 16 || file.getInt(0) != MAGIC || file.getInt(4) != VERSION){
+            throw new IOException("'" + path + "' is not a wiki-walker landmark file");
+        }
+        numberPages = file.getInt(8);
+        landmarks = new int[file.getInt(12)];
+
+        for(int i = 0; i < landmarks.length; i++){
+            landmarks[i] = file.getInt(16 + 4L * i);
+        }
+        distances = align(16 + 4L * landmarks.length);
+    }
+
+    public int getNumberPages(){
+        return numberPages;
+    }
+
+    public int getNumberLandmarks(){
+        return landmarks.length;
+    }
+
+    public int getLandmark(int index){
+        return landmarks[index];
+    }
+
+    /* lower bound of the number of links from 'from' to 'to', NO_PATH if there is none */
+    public int lowerBound(int from, int to){
+
+        int bound = 0;
+
+        for(int i = 0; i < landmarks.length; i++){
+            long fromLandmark = distances + 2L * numberPages * i;
+            long toLandmark = fromLandmark + numberPages;
+
+            /* d(L, to) - d(L, from) */
+            int landmarkToGoal = getDistance(fromLandmark, to);
+            int landmarkToPage = getDistance(fromLandmark, from);
+
+            if(landmarkToPage != UNREACHABLE && landmarkToGoal == UNREACHABLE){
+                /* L reaches 'from' but not 'to' */
+                return NO_PATH;
+            }
+            if(landmarkToPage < FAR && landmarkToGoal != UNREACHABLE){
+                bound = Math.max(bound, landmarkToGoal - landmarkToPage);
+            }
+
+            /* d(from, L) - d(to, L) */
+            int pageToLandmark = getDistance(toLandmark, from);
+            int goalToLandmark = getDistance(toLandmark, to);
+
+            if(pageToLandmark == UNREACHABLE && goalToLandmark != UNREACHABLE){
+                /* 'to' reaches L but 'from' doesn't */
+                return NO_PATH;
+            }
+            if(goalToLandmark < FAR && pageToLandmark != UNREACHABLE){
+                bound = Math.max(bound, pageToLandmark - goalToLandmark);
+            }
+        }
+        return bound;
+    }
+
+    private int getDistance(long section, int id){
+        return file.getByte(section + id) & 0xff;
+    }
+
+    /*
+     * the biggest hub first, then again and again the page farthest away from all landmarks so far
+     * (the more links the better on a tie). central hubs alone give weak bounds, landmarks "behind"
+     * the pages do well. both BFS of a landmark run in parallel
+     */
+    public static void compute(WikiGraph graph, int k, Path path) throws IOException {
+
+        k = Math.min(k, graph.getNumberPages());
+        int[] landmarks = new int[k];
+        byte[][] distances = new byte[2 * k][];
+
+        /* to the nearest landmark so far, in either direction */
+        int[] nearest = new int[graph.getNumberPages()];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+
+        for(int i = 0; i < k; i++){
+            int landmark = i == 0 ? selectHub(graph) : selectFarthest(graph, nearest, distances[0], distances[1]);
+            landmarks[i] = landmark;
+
+            byte[][] both = IntStream.range(0, 2).parallel()
+                    .mapToObj(j -> bfs(graph, landmark, j == 0 ? Direction.forward : Direction.backward))
+                    .toArray(byte[][]::new);
+            distances[2 * i] = both[0];
+            distances[2 * i + 1] = both[1];
+
+            for(int id = 0; id < nearest.length; id++){
+                nearest[id] = Math.min(nearest[id], Math.min(both[0][id] & 0xff, both[1][id] & 0xff));
+            }
+        }
+
+        ByteBuffer header = ByteBuffer.allocate((int) align(16 + 4L * k)).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(graph.getNumberPages()).putInt(k);
+        for(int landmark : landmarks){
+            header.putInt(landmark);
+        }
+        header.clear();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)){
+            write(channel, header);
+            for(byte[] distance : distances){
+                write(channel, ByteBuffer.wrap(distance));
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int selectHub(WikiGraph graph){
+
+        int hub = 0;
+        for(int id = 1; id < graph.getNumberPages(); id++){
+            if(getDegree(graph, id) > getDegree(graph, hub)){
+                hub = id;
+            }
+        }
+        return hub;
+    }
+
+    /* only pages connected both ways with the first landmark, the others bound (almost) nothing */
+    private static int selectFarthest(WikiGraph graph, int[] nearest, byte[] fromFirst, byte[] toFirst){
+
+        int farthest = -1;
+        for(int id = 0; id < graph.getNumberPages(); id++){
+
+            if((fromFirst[id] & 0xff) == UNREACHABLE || (toFirst[id] & 0xff) == UNREACHABLE || nearest[id] == 0){
+                continue;
+            }
+            if(farthest < 0 || nearest[id] > nearest[farthest]
+                    || (nearest[id] == nearest[farthest] && getDegree(graph, id) > getDegree(graph, farthest))){
+                farthest = id;
+            }
+        }
+        /* everything is a landmark already */
+        return farthest < 0 ? selectHub(graph) : farthest;
+    }
+
+    private static long getDegree(WikiGraph graph, int id){
+        return graph.getDegree(id, Direction.forward) + graph.getDegree(id, Direction.backward);
+    }
+
+    /* forward: distances from the landmark, backward (along backlinks): distances to it */
+    private static byte[] bfs(WikiGraph graph, int landmark, Direction direction){
+
+        byte[] distance = new byte[graph.getNumberPages()];
+        Arrays.fill(distance, (byte) UNREACHABLE);
+
+        int[] queue = new int[graph.getNumberPages()];
+        int head = 0, tail = 0;
+
+        queue[tail++] = landmark;
+        distance[landmark] = 0;
+
+        while(head < tail){
+            int id = queue[head++];
+            int next = Math.min((distance[id] & 0xff) + 1, FAR);
+
+            for(int neighbour : graph.getNeighbours(id, direction)){
+                if((distance[neighbour] & 0xff) == UNREACHABLE){
+                    distance[neighbour] = (byte) next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return distance;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+    }
+
+    private static long align(long position){
+        return (position + 7) & ~7L;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if(args.length < 1){
+            System.out.println("usage: Landmarks <graph> [#landmarks]");
+            return;
+        }
+        Path graphFile = Path.of(args[0]);
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        long start = System.nanoTime();
+        compute(new WikiGraph(graphFile), k, getPath(graphFile));
+
+        System.out.println(String.format(Locale.ROOT, "%d landmarks written to '%s' (%.1f s)",
+                k, getPath(graphFile), (System.nanoTime() - start) / 1e9));
+    }
+
+    /* next to the graph file */
+    public static Path getPath(Path graphFile){
+        return graphFile.resolveSibling(graphFile.getFileName() + ".landmarks");
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * log-scale histogram of durations in microseconds: four buckets per power of two, so that
+ * percentiles are off by at most 25 %. recording is lock-free (one striped counter per bucket)
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    /* up to 2^40 us, i.e. ~12 days */
+    private static final int BUCKETS = 40 * SUB_BUCKETS;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    public LatencyHistogram(){
+        buckets = new LongAdder[BUCKETS];
+        for(int i = 0; i < BUCKETS; i++){
+            buckets[i] = new LongAdder();
+        }
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new LongAccumulator(Math::max, 0);
+    }
+
+    public void record(long nanos){
+
+        long micros = Math.max(nanos / 1000, 0);
+
+        buckets[indexOf(micros)].increment();
+        count.increment();
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+    public void reset(){
+        for(LongAdder bucket : buckets){
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    public long getCount(){
+        return count.sum();
+    }
+
+    public double getMeanMillis(){
+        long n = count.sum();
+        return n == 0 ? 0.0 : sum.sum() / 1000.0 / n;
+    }
+
+    public double getMaxMillis(){
+        return max.get() / 1000.0;
+    }
+
+    /* upper bound of the bucket holding the given percentile (0 - 100) */
+    public double getPercentileMillis(double percentile){
+
+        long n = count.sum();
+        if(n == 0){
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * n);
+
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            seen += buckets[i].sum();
+            if(seen >= Math.max(rank, 1)){
+                return Math.min(upperBoundOf(i), max.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public String toString(){
+        return String.format(Locale.ROOT, "n=%d, mean %.1f ms, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+                getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(90),
+                getPercentileMillis(99), getMaxMillis());
+    }
+
+    public String toJson(){
+        return String.format(Locale.ROOT, "{\"count\":%d,\"meanMillis\":%.3f,\"p50Millis\":%.3f,\"p90Millis\":%.3f,\"p99Millis\":%.3f,\"maxMillis\":%.3f}",
+                getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(90),
+                getPercentileMillis(99), getMaxMillis());
+    }
+
+    /* 0 - 3 are exact, then the two bits after the leading one pick the sub-bucket */
+    private static int indexOf(long micros){
+
+        if(micros < SUB_BUCKETS){
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >> (exponent - 2)) & (SUB_BUCKETS - 1);
+
+        return Math.min((exponent - 1) * SUB_BUCKETS + sub, BUCKETS - 1);
+    }
+
+    private static long upperBoundOf(int index){
+
+        if(index < SUB_BUCKETS){
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - 2);
+        return lower + (1L << (exponent - 2)) - 1;
+    }
+}
@@ -0,0 +1,5 @@
+/* receives links one by one while they arrive, returning false stops the lookup */
+public interface LinkConsumer {
+
+    public boolean accept(String from, String to);
+}
@@ -0,0 +1,92 @@
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/* where the walker gets its links, backlinks and categories from */
+public interface LinkSource {
+
+    /* true if the page exists (no request is counted) */
+    public boolean pageExists(String title);
+
+    /*
+     * requested title -> canonical title (normalized, redirects followed), pages that don't exist are
+     * left out. sources that know no redirects only normalize, the API resolves many titles per request
+     */
+    public default CompletableFuture<Map<String, String>> resolveAsync(Collection<String> titles, Statistics stats){
+        Map<String, String> resolved = new HashMap<>();
+
+        for(String title : titles){
+            String normalized = TitleResolver.normalize(title);
+            if(pageExists(normalized)){
+                resolved.put(title, normalized);
+            }
+        }
+        return CompletableFuture.completedFuture(resolved);
+    }
+
+    /* without a request: the canonical title of a title as the source spells it, if known already */
+    public default String getKnownCanonical(String title){
+        return title;
+    }
+
+    /* titles of all articles linked from (forward) or linking to (backward) the given page */
+    public List<String> getLinks(String title, Direction direction, Statistics stats);
+
+    /* titles of all categories (incl. "Category:" prefix) of the given page */
+    public List<String> getCategories(String title, Statistics stats);
+
+    /* batched variants: one entry per requested title. sources with a cheaper multi-title lookup override these */
+
+    public default Map<String, List<String>> getLinks(Collection<String> titles, Direction direction, Statistics stats){
+        Map<String, List<String>> links = new HashMap<>();
+
+        for(String title : titles){
+            links.put(title, getLinks(title, direction, stats));
+        }
+        return links;
+    }
+
+    public default Map<String, List<String>> getCategories(Collection<String> titles, Statistics stats){
+        Map<String, List<String>> categories = new HashMap<>();
+
+        for(String title : titles){
+            categories.put(title, getCategories(title, stats));
+        }
+        return categories;
+    }
+
+    /* asynchronous variants, sources that don't block on the network just answer right away */
+
+    public default CompletableFuture<Map<String, List<String>>> getLinksAsync(Collection<String> titles, Direction direction, Statistics stats){
+        return CompletableFuture.completedFuture(getLinks(titles, direction, stats));
+    }
+
+    public default CompletableFuture<Map<String, List<String>>> getCategoriesAsync(Collection<String> titles, Statistics stats){
+        return CompletableFuture.completedFuture(getCategories(titles, stats));
+    }
+
+    /*
+     * hands out the links of all given pages as they arrive, a source that pages through its answers
+     * stops fetching once the consumer returns false. completes with false if stopped early or if
+     * the links are incomplete for another reason (a failed request), true only if they can be cached
+     */
+    public default CompletableFuture<Boolean> streamLinksAsync(Collection<String> titles, Direction direction, Statistics stats, LinkConsumer consumer){
+
+        return getLinksAsync(titles, direction, stats).thenApply(linksByTitle -> {
+            for(Map.Entry<String, List<String>> links : linksByTitle.entrySet()){
+                for(String link : links.getValue()){
+                    if(!consumer.accept(links.getKey(), link)){
+                        return false;
+                    }
+                }
+            }
+            return true;
+        });
+    }
+
+    /* frees what the source holds (threads, buffers) once no walk uses it anymore */
+    public default void close(){
+    }
+}
@@ -0,0 +1,4 @@
+
+public enum LinkSourceType{
+    http, offline;
+}
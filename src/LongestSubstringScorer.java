@@ -0,0 +1,145 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * length of the longest common substring with the goal's canonical title. the goal is compiled
+ * into a suffix automaton, so a candidate is scored in one pass over its title
+ */
+public class LongestSubstringScorer implements HeuristicScorer {
+
+    private static final int NONE = -1;
+
+    /* per state: length of the longest string it stands for and its suffix link */
+    private final int[] length;
+    private final int[] link;
+
+    /* transitions (state, char) -> state as an open addressing table */
+    private final long[] transitionKeys;
+    private final int[] transitionTargets;
+
+    public LongestSubstringScorer(Node goalNode){
+
+        char[] goal = HammingScorer.toLowerCase(goalNode.getTitle());
+
+        int maxStates = 2 * goal.length + 1;
+        int[] length = new int[maxStates];
+        int[] link = new int[maxStates];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Map<Character, Integer>[] next = new Map[maxStates];
+
+        /* standard online construction */
+        int states = 1;
+        int last = 0;
+        link[0] = NONE;
+        next[0] = new HashMap<>();
+
+        for(char c : goal){
+            int current = states++;
+            length[current] = length[last] + 1;
+            next[current] = new HashMap<>();
+
+            int p = last;
+            while(p != NONE && !next[p].containsKey(c)){
+                next[p].put(c, current);
+                p = link[p];
+            }
+
+            if(p == NONE){
+                link[current] = 0;
+            }else{
+                int q = next[p].get(c);
+
+                if(length[p] + 1 == length[q]){
+                    link[current] = q;
+                }else{
+                    int clone = states++;
+                    length[clone] = length[p] + 1;
+                    next[clone] = new HashMap<>(next[q]);
+                    link[clone] = link[q];
+
+                    while(p != NONE && next[p].get(c) == q){
+                        next[p].put(c, clone);
+                        p = link[p];
+                    }
+                    link[q] = clone;
+                    link[current] = clone;
+                }
+            }
+            last = current;
+        }
+
+        this.length = Arrays.copyOf(length, states);
+        this.link = Arrays.copyOf(link, states);
+
+        int transitions = 0;
+        for(int state = 0; state < states; state++){
+            transitions += next[state].size();
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(4, transitions * 2)) << 1;
+        transitionKeys = new long[capacity];
+        transitionTargets = new int[capacity];
+        Arrays.fill(transitionKeys, NONE);
+
+        for(int state = 0; state < states; state++){
+            for(Map.Entry<Character, Integer> transition : next[state].entrySet()){
+                int slot = find(key(state, transition.getKey()));
+                transitionKeys[slot] = key(state, transition.getKey());
+                transitionTargets[slot] = transition.getValue();
+            }
+        }
+    }
+
+    @Override
+    public double score(Node candidate){
+        return getLongestSubstring(candidate.getTitle());
+    }
+
+    public int getLongestSubstring(String title){
+
+        int state = 0;
+        int current = 0;
+        int longest = 0;
+
+        for(int i = 0; i < title.length(); i++){
+            char c = Character.toLowerCase(title.charAt(i));
+
+            /* fall back to shorter suffixes until c can be appended */
+            int target;
+            while((target = getTransition(state, c)) == NONE && state != 0){
+                state = link[state];
+                current = length[state];
+            }
+
+            if(target == NONE){
+                state = 0;
+                current = 0;
+            }else{
+                state = target;
+                current++;
+            }
+            longest = Math.max(longest, current);
+        }
+        return longest;
+    }
+
+    private int getTransition(int state, char c){
+        int slot = find(key(state, c));
+        return transitionKeys[slot] == NONE ? NONE : transitionTargets[slot];
+    }
+
+    private int find(long key){
+        int mask = transitionKeys.length - 1;
+        int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+
+        while(transitionKeys[slot] != NONE && transitionKeys[slot] != key){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long key(int state, char c){
+        return ((long) state << 16) | c;
+    }
+}
@@ -1,15 +1,25 @@
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class Main {
 
     public static String indentation = "       ";
+    public static final Path CACHE_DIRECTORY = Path.of(System.getProperty("user.home"), ".wiki-walker", "cache");
     private final Scanner scanner;
     private boolean running;
 
     private Preferences prefs;
     private Statistics stats;
 
+    /* survives between walks (incl. its cache), rebuilt when the source settings change */
+    private LinkSource linkSource;
+    private String linkSourceKey;
+
     public Main(){
         scanner = new Scanner(System.in);
         running = true;
@@ -32,6 +42,9 @@ public class Main {
     }
 
     private void quit(){
+        if(linkSource != null){
+            linkSource.close();
+        }
         running = false;
     }
 
@@ -40,13 +53,84 @@ public class Main {
             String startPoint = getStartPoint();
             String endPoint = getEndPoint();
 
-            Walker walker = new Walker(prefs, stats, startPoint, endPoint);
+            LinkSource source = getLinkSource();
+
+            if(prefs.getRecordingFile().isEmpty()){
+                Walker walker = new Walker(prefs, stats, source, startPoint, endPoint);
+            }else{
+                try(WalkRecording recording = new WalkRecording(Path.of(prefs.getRecordingFile()))){
+                    System.out.println(indentation + "recording the walk to '" + recording.getFile() + "'");
+                    Walker walker = new Walker(prefs, stats, source, startPoint, endPoint);
+                }catch(IOException e){
+                    System.out.println(indentation + "ERROR: couldn't record '" + prefs.getRecordingFile() + "'");
+                }
+            }
+            exportStats(startPoint, endPoint);
 
         }catch(RuntimeException e){
             System.out.println(indentation + e.getMessage());
         }
     }
 
+    /* appends one JSON line per walk */
+    private void exportStats(String startPoint, String endPoint){
+
+        if(prefs.getStatsFile().isEmpty()){
+            return;
+        }
+        String line = "{\"from\":" + JsonWriter.quote(startPoint) + ",\"to\":" + JsonWriter.quote(endPoint)
+                + ",\"stats\":" + stats.toJson() + "}" + System.lineSeparator();
+        try{
+            Files.writeString(Path.of(prefs.getStatsFile()), line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }catch(IOException e){
+            System.out.println(indentation + "ERROR: couldn't write '" + prefs.getStatsFile() + "'");
+        }
+    }
+
+    private LinkSource getLinkSource(){
+
+        /* only the settings the chosen source is built from, the offline graph knows nothing of the API */
+        String key = prefs.getLinkSourceType() == LinkSourceType.offline ? "offline:" + prefs.getGraphFile()
+                : "http:" + prefs.isCacheEnabled() + ":" + prefs.getCacheMegabytes() + ":" + prefs.getCacheTtlHours()
+                + ":" + prefs.getApi() + ":" + prefs.getTraceFile() + ":" + prefs.isCoalescing()
+                + ":" + prefs.getMaxRate() + ":" + prefs.getRetries();
+
+        if(linkSource == null || !key.equals(linkSourceKey)){
+            if(linkSource != null){
+                linkSource.close();
+            }
+            linkSource = createLinkSource(prefs);
+            linkSourceKey = key;
+        }
+        return linkSource;
+    }
+
+    public static LinkSource createLinkSource(Preferences prefs){
+
+        try{
+            if(prefs.getLinkSourceType() == LinkSourceType.http){
+                ApiTrace trace = prefs.getTraceFile().isEmpty() ? null : ApiTrace.record(Path.of(prefs.getTraceFile()));
+                LinkSource source = new HttpLinkSource(prefs.getApi(), trace, prefs.getMaxRate(), prefs.getRetries());
+
+                /* below the cache: hits don't wait, concurrent misses share one request */
+                if(prefs.isCoalescing()){
+                    source = new CoalescingLinkSource(source);
+                }
+
+                if(!prefs.isCacheEnabled()){
+                    return source;
+                }
+                /* the offline graph is faster than any cache, only the API gets one */
+                MemoryCache memoryCache = new MemoryCache(prefs.getCacheMegabytes() * 1024L * 1024L);
+                DiskCache diskCache = new DiskCache(CACHE_DIRECTORY, prefs.getCacheTtlHours() * 3600_000L);
+                return new CachingLinkSource(source, memoryCache, diskCache);
+            }
+            return new GraphLinkSource(Path.of(prefs.getGraphFile()));
+        }catch(IOException e){
+            throw new UncheckedIOException("ERROR: couldn't open '" + e.getMessage() + "'", e);
+        }
+    }
+
     private void printStats(){
         stats.printStats();
     }
@@ -99,7 +183,7 @@ public class Main {
         System.out.print(indentation + "variable: ");
         String variableString = normalize(scanner.nextLine());
         System.out.print(indentation + "value: ");
-        String valueString = normalize(scanner.nextLine());
+        String valueString = scanner.nextLine();
 
         try{
             prefs.setPref(variableString, valueString);
@@ -112,13 +196,24 @@ public class Main {
         return s.toLowerCase().trim();
     }
 
+    /* as in URLs and dumps: "albert  einstein " -> "Albert_einstein" (redirects need the API, see TitleResolver) */
     public static String format(String string){
-        // TODO: convert string to wikipedia title universally
-        return string.replace(" ", "_");
+        return TitleResolver.normalize(string).replace(' ', '_');
     }
 
     public static void main(String[] args) throws IOException, InterruptedException {
 
+        /* "java Main batch ..." walks a file of pairs without asking */
+        if(args.length > 0 && args[0].equals("batch")){
+            BatchWalker.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        /* "java Main serve ..." answers /walk?from=&to= over HTTP */
+        if(args.length > 0 && args[0].equals("serve")){
+            WalkServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         Main main = new Main();
         main.printHeader();
 
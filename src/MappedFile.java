@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/* read-only view of a file of any size, a single MappedByteBuffer stops at 2 GB */
+public class MappedFile {
+
+    /* multiple of 8 so aligned ints and longs never straddle two segments */
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final MappedByteBuffer[] segments;
+    /* the same segments as floats, for bulk reads */
+    private final FloatBuffer[] floatSegments;
+    private final long size;
+
+    public MappedFile(Path path) throws IOException {
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            size = channel.size();
+
+            int numberSegments = (int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+            segments = new MappedByteBuffer[numberSegments];
+            floatSegments = new FloatBuffer[numberSegments];
+
+            for(int i = 0; i < numberSegments; i++){
+                long position = (long) i << SEGMENT_BITS;
+                long length = Math.min(size - position, 1L << SEGMENT_BITS);
+
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+                floatSegments[i] = segments[i].asFloatBuffer();
+            }
+        }
+    }
+
+    public long size(){
+        return size;
+    }
+
+    public byte getByte(long position){
+        return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & SEGMENT_MASK));
+    }
+
+    public int getInt(long position){
+        return segments[(int) (position >>> SEGMENT_BITS)].getInt((int) (position & SEGMENT_MASK));
+    }
+
+    public float getFloat(long position){
+        return segments[(int) (position >>> SEGMENT_BITS)].getFloat((int) (position & SEGMENT_MASK));
+    }
+
+    /* 'length' floats from a position that is a multiple of 4 */
+    public void getFloats(long position, float[] floats, int length){
+
+        int segment = (int) (position >>> SEGMENT_BITS);
+        int offset = (int) (position & SEGMENT_MASK);
+
+        if(offset + 4L * length <= segments[segment].capacity()){
+            floatSegments[segment].get(offset >>> 2, floats, 0, length);
+            return;
+        }
+        /* runs into the next segment */
+        for(int i = 0; i < length; i++){
+            floats[i] = getFloat(position + 4L * i);
+        }
+    }
+
+    public long getLong(long position){
+        return segments[(int) (position >>> SEGMENT_BITS)].getLong((int) (position & SEGMENT_MASK));
+    }
+
+    public byte[] getBytes(long position, int length){
+        byte[] bytes = new byte[length];
+
+        for(int i = 0; i < length; i++){
+            bytes[i] = getByte(position + i);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,56 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/* least recently used title lists, bounded by their (estimated) size in bytes */
+public class MemoryCache {
+
+    private final LinkedHashMap<String, String[]> entries;
+    private final long maxBytes;
+    private long bytes;
+
+    public MemoryCache(long maxBytes){
+        /* access order turns the map into an LRU list */
+        this.entries = new LinkedHashMap<>(256, 0.75f, true);
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized String[] get(String key){
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, List<String> titles){
+
+        String[] value = titles.toArray(new String[0]);
+        long size = sizeOf(key, value);
+
+        /* would evict everything else */
+        if(size > maxBytes){
+            return;
+        }
+
+        String[] previous = entries.put(key, value);
+        if(previous != null){
+            bytes -= sizeOf(key, previous);
+        }
+        bytes += size;
+
+        Iterator<Map.Entry<String, String[]>> eldest = entries.entrySet().iterator();
+        while(bytes > maxBytes && eldest.hasNext()){
+            Map.Entry<String, String[]> entry = eldest.next();
+            bytes -= sizeOf(entry.getKey(), entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    public synchronized long getBytes(){
+        return bytes;
+    }
+
+    /* two bytes per char plus object overhead, good enough for a budget */
+    private static long sizeOf(String key, String[] value){
+        return 64 + 2L * key.length() + 16 + Arrays.stream(value).mapToLong(title -> 40 + 2L * title.length()).sum();
+    }
+}
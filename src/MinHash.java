@@ -0,0 +1,62 @@
+import java.util.Random;
+
+/* fixed-size sketches of int sets, the share of equal slots estimates the jaccard similarity */
+public class MinHash {
+
+    public static final int SIZE = 64;
+
+    /* one (odd multiplier, offset) pair per slot, fixed so sketches of different walks are comparable */
+    private static final int[] MULTIPLIERS = new int[SIZE];
+    private static final int[] OFFSETS = new int[SIZE];
+
+    static {
+        Random random = new Random(0x5EED);
+        for(int i = 0; i < SIZE; i++){
+            MULTIPLIERS[i] = random.nextInt() | 1;
+            OFFSETS[i] = random.nextInt();
+        }
+    }
+
+    private MinHash(){}
+
+    /* null for the empty set, which is similar to nothing */
+    public static int[] sketch(int[] ids){
+
+        if(ids.length == 0){
+            return null;
+        }
+        int[] sketch = new int[SIZE];
+
+        for(int i = 0; i < SIZE; i++){
+            int min = Integer.MAX_VALUE;
+
+            for(int id : ids){
+                min = Math.min(min, hash(id, i));
+            }
+            sketch[i] = min;
+        }
+        return sketch;
+    }
+
+    /* estimated jaccard similarity in [0; 1] */
+    public static double similarity(int[] first, int[] second){
+
+        if(first == null || second == null){
+            return 0.0;
+        }
+        int equal = 0;
+
+        for(int i = 0; i < SIZE; i++){
+            equal += first[i] == second[i] ? 1 : 0;
+        }
+        return (double) equal / SIZE;
+    }
+
+    private static int hash(int id, int slot){
+        int h = id * MULTIPLIERS[slot] + OFFSETS[slot];
+        h ^= h >>> 15;
+        h *= 0x2C1B3C6D;
+        h ^= h >>> 12;
+        return h;
+    }
+}
@@ -1,19 +1,28 @@
-import java.util.*;
-
 public class Node {
 
-    private final String title;
-    private final String canonicalTitle;
-    private Set<String> categories;
+    private static final int[] NO_CATEGORIES = new int[0];
+
+    /* see TitleDictionary */
+    private final int id;
+    /* sorted ids of the category titles */
+    private int[] categories;
+    /* MinHash of the categories and their ancestors, null if there are none */
+    private int[] categorySketch;
     private double cost;
 
-    private Node parent;
+    private int parentId;
     private Direction direction;
+    /* number of links from the root of its direction */
+    private int depth;
 
     public Node(String title){
-        this.title = title;
-        this.canonicalTitle = this.title.toLowerCase();
-        this.categories = new HashSet<>();
+        this(TitleDictionary.idOf(title));
+    }
+
+    public Node(int id){
+        this.id = id;
+        this.categories = NO_CATEGORIES;
+        this.parentId = ExploredSet.NO_PARENT;
 
         this.cost = Double.POSITIVE_INFINITY;
     }
@@ -22,53 +31,79 @@ public class Node {
         this.cost = cost;
     }
 
-    public Set<String> getCategories(){
+    public int[] getCategories(){
         return categories;
     }
 
+    public int[] getCategorySketch(){
+        return categorySketch;
+    }
+
+    public void setCategorySketch(int[] categorySketch){
+        this.categorySketch = categorySketch;
+    }
+
     public void setCost(double cost){
         this.cost = cost;
     }
 
-    public void setCategories(Set<String> categories){
+    public void setCategories(int[] categories){
         this.categories = categories;
     }
 
     public void setParent(Node parent){
-        this.parent = parent;
+        this.parentId = parent.id;
+        this.depth = parent.depth + 1;
+    }
+
+    public void setParentId(int parentId){
+        this.parentId = parentId;
     }
 
     public void setDirection(Direction direction){
         this.direction = direction;
     }
 
-    public Node getParent(){
-        return this.parent;
+    /* ExploredSet.NO_PARENT for a root */
+    public int getParentId(){
+        return this.parentId;
+    }
+
+    public boolean hasParent(){
+        return this.parentId != ExploredSet.NO_PARENT;
     }
 
     public Direction getDirection(){
         return this.direction;
     }
 
+    public int getDepth(){
+        return this.depth;
+    }
+
     /* disregard cost, nodes are still equal */
     public boolean equals(Object other){
-        return other instanceof Node && ((Node) other).title.equals(this.title);
+        return other instanceof Node && ((Node) other).id == this.id;
     }
 
     public int hashCode(){
-        return title.hashCode();
+        return id;
+    }
+
+    public int getId(){
+        return id;
     }
 
     public String getTitle(){
-        return title;
+        return TitleDictionary.titleOf(id);
     }
 
     public String getURLTitle(){
-        return Main.format(title);
+        return Main.format(getTitle());
     }
 
     public String getCanonicalTitle(){
-        return canonicalTitle;
+        return getTitle().toLowerCase();
     }
 
     public double getCost(){
@@ -0,0 +1,261 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * level-synchronous BFS over the offline graph on all cores: every level is a fork/join task over
+ * ranges of bitmap words (64 pages each). direction-optimizing (Beamer et al.):
+ * - top-down: the frontier pushes along its links, new pages are claimed with a CAS
+ * - bottom-up: every unvisited page looks for a parent among its backlinks and stops at the first
+ *   one in the frontier, each task owns its words so no CAS is needed
+ * bottom-up pays off once the frontier holds a good part of the graph. the goal is reached on the
+ * level of its distance, so the path is a shortest one.
+ * the bitmaps and parents take a few bits and an int per page, so a search is taken from (and given
+ * back to) the idle ones of its GraphLinkSource instead of allocating them per walk
+ */
+public class ParallelBfs {
+
+    /* bottom-up once the frontier has more than 1/ALPHA of the unexplored links, top-down again below 1/BETA of all pages */
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    /* bitmap words per fork/join leaf */
+    private static final int LEAF_WORDS = 64;
+
+    private final WikiGraph graph;
+
+    private final int numberPages;
+    private final int numberWords;
+
+    private final AtomicLongArray visited;
+    private AtomicLongArray frontier;
+    private AtomicLongArray next;
+    private final int[] parents;
+
+    private int goal;
+    private volatile boolean reached;
+
+    /* of the level being built */
+    private final LongAdder nextSize;
+    private final LongAdder nextLinks;
+
+    public ParallelBfs(WikiGraph graph){
+        this.graph = graph;
+
+        this.numberPages = graph.getNumberPages();
+        this.numberWords = (numberPages + 63) >>> 6;
+
+        this.visited = new AtomicLongArray(numberWords);
+        this.frontier = new AtomicLongArray(numberWords);
+        this.next = new AtomicLongArray(numberWords);
+        this.parents = new int[numberPages];
+
+        this.nextSize = new LongAdder();
+        this.nextLinks = new LongAdder();
+    }
+
+    /* ids from start to goal, null if the goal can't be reached */
+    public int[] search(int start, int goal, ForkJoinPool pool, Statistics stats, boolean verbose){
+
+        /* left from the last search, parents are only read for visited pages */
+        clear(visited);
+        clear(frontier);
+
+        this.goal = goal;
+
+        set(visited, start);
+        set(frontier, start);
+        parents[start] = ExploredSet.NO_PARENT;
+        reached = start == goal;
+
+        long frontierSize = 1;
+        long frontierLinks = graph.getDegree(start, Direction.forward);
+        long unexploredLinks = graph.getNumberLinks() - frontierLinks;
+        long explored = 1;
+        boolean bottomUp = false;
+
+        for(int level = 1; !reached && frontierSize > 0; level++){
+
+            /* grows: switch once the frontier's links outweigh the rest, shrinks: switch back */
+            if(!bottomUp && frontierLinks > unexploredLinks / ALPHA){
+                bottomUp = true;
+            }else if(bottomUp && frontierSize < numberPages / BETA){
+                bottomUp = false;
+            }
+
+            stats.countExpanded((int) frontierSize);
+            if(verbose){
+                System.out.println(Main.indentation + "level " + level + ": " + frontierSize + " pages "
+                        + (bottomUp ? "(bottom-up)" : "(top-down)"));
+            }
+
+            nextSize.reset();
+            nextLinks.reset();
+            pool.invoke(new Level(0, numberWords, bottomUp));
+
+            AtomicLongArray expanded = frontier;
+            frontier = next;
+            next = expanded;
+            clear(next);
+
+            frontierSize = nextSize.sum();
+            frontierLinks = nextLinks.sum();
+            unexploredLinks -= frontierLinks;
+            explored += frontierSize;
+
+            stats.recordFrontier((int) Math.min(frontierSize, Integer.MAX_VALUE));
+            stats.recordExplored((int) Math.min(explored, Integer.MAX_VALUE));
+        }
+
+        if(!reached){
+            return null;
+        }
+
+        int length = 1;
+        for(int id = goal; parents[id] != ExploredSet.NO_PARENT; id = parents[id]){
+            length++;
+        }
+        int[] path = new int[length];
+        for(int id = goal, i = length - 1; i >= 0; id = parents[id], i--){
+            path[i] = id;
+        }
+        return path;
+    }
+
+    /* one level over the words [from; to) */
+    private class Level extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final boolean bottomUp;
+
+        private Level(int from, int to, boolean bottomUp){
+            this.from = from;
+            this.to = to;
+            this.bottomUp = bottomUp;
+        }
+
+        @Override
+        protected void compute(){
+
+            if(to - from > LEAF_WORDS){
+                int middle = (from + to) >>> 1;
+                invokeAll(new Level(from, middle, bottomUp), new Level(middle, to, bottomUp));
+                return;
+            }
+            if(bottomUp){
+                bottomUp();
+            }else{
+                topDown();
+            }
+        }
+
+        private void topDown(){
+
+            long size = 0, links = 0;
+
+            for(int word = from; word < to && !reached; word++){
+                for(long bits = frontier.get(word); bits != 0; bits &= bits - 1){
+
+                    int page = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    long edge = graph.getFirstLink(page, Direction.forward);
+                    long last = graph.getFirstLink(page + 1, Direction.forward);
+
+                    for(; edge < last; edge++){
+                        int child = graph.getLink(edge, Direction.forward);
+
+                        if(claim(visited, child)){
+                            parents[child] = page;
+                            set(next, child);
+                            size++;
+                            links += graph.getDegree(child, Direction.forward);
+
+                            if(child == goal){
+                                reached = true;
+                            }
+                        }
+                    }
+                }
+            }
+            nextSize.add(size);
+            nextLinks.add(links);
+        }
+
+        private void bottomUp(){
+
+            long size = 0, links = 0;
+
+            for(int word = from; word < to && !reached; word++){
+
+                long unvisited = ~visited.get(word);
+                if(word == numberWords - 1 && (numberPages & 63) != 0){
+                    unvisited &= (1L << (numberPages & 63)) - 1;
+                }
+                long found = 0;
+
+                for(long bits = unvisited; bits != 0; bits &= bits - 1){
+
+                    int page = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    long edge = graph.getFirstLink(page, Direction.backward);
+                    long last = graph.getFirstLink(page + 1, Direction.backward);
+
+                    for(; edge < last; edge++){
+                        int parent = graph.getLink(edge, Direction.backward);
+
+                        if(contains(frontier, parent)){
+                            parents[page] = parent;
+                            found |= 1L << (page & 63);
+                            size++;
+                            links += graph.getDegree(page, Direction.forward);
+
+                            if(page == goal){
+                                reached = true;
+                            }
+                            break;
+                        }
+                    }
+                }
+                /* the words of this task belong to nobody else */
+                if(found != 0){
+                    visited.set(word, visited.get(word) | found);
+                    next.set(word, found);
+                }
+            }
+            nextSize.add(size);
+            nextLinks.add(links);
+        }
+    }
+
+    private static boolean contains(AtomicLongArray bitmap, int page){
+        return (bitmap.get(page >>> 6) & (1L << (page & 63))) != 0;
+    }
+
+    /* false if another task was first */
+    private static boolean claim(AtomicLongArray bitmap, int page){
+
+        int word = page >>> 6;
+        long bit = 1L << (page & 63);
+
+        while(true){
+            long bits = bitmap.get(word);
+            if((bits & bit) != 0){
+                return false;
+            }
+            if(bitmap.compareAndSet(word, bits, bits | bit)){
+                return true;
+            }
+        }
+    }
+
+    private static void set(AtomicLongArray bitmap, int page){
+        claim(bitmap, page);
+    }
+
+    private void clear(AtomicLongArray bitmap){
+        for(int word = 0; word < numberWords; word++){
+            bitmap.set(word, 0);
+        }
+    }
+}
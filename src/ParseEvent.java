@@ -0,0 +1,22 @@
+import jdk.jfr.*;
+
+/* one API response decoded, while streaming this includes waiting for the download */
+@Name("wikiwalker.Parse")
+@Label("Parse Response")
+@Category("Wiki-Walker")
+@Description("decoding of one API response (HttpLinkSource.getLinksFromResponse and streamed lookups)")
+public class ParseEvent extends Event {
+
+    @Label("Title")
+    @Description("first page of the response")
+    String title;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Prop")
+    String prop;
+
+    @Label("Entries")
+    int entries;
+}
@@ -0,0 +1,187 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * routes of earlier walks: every part of a found path is a route as well. kept as trees of title ids,
+ * one per goal (page -> next page towards the goal) and one per start (page -> page before it), so
+ * a walk can stop at the first page that has a route to its goal (or from its start).
+ * persisted as one path per line (titles separated by tabs), appended as they are found
+ */
+public class PathCache {
+
+    private static final int NONE = -1;
+
+    /* opened once, shared by all walks */
+    private static final Map<Path, PathCache> OPENED = new ConcurrentHashMap<>();
+
+    private final Path file;
+
+    /* goal -> (page -> next page) */
+    private final Map<Integer, ConcurrentIntIntMap> toGoal;
+    /* start -> (page -> previous page) */
+    private final Map<Integer, ConcurrentIntIntMap> fromStart;
+
+    public PathCache(Path file) throws IOException {
+        this.file = file;
+        this.toGoal = new ConcurrentHashMap<>();
+        this.fromStart = new ConcurrentHashMap<>();
+
+        load();
+        TitleDictionary.onReset(this::reload);
+    }
+
+    private void load() throws IOException {
+
+        if(Files.exists(file)){
+            for(String line : Files.readAllLines(file, StandardCharsets.UTF_8)){
+                if(!line.isBlank()){
+                    index(Arrays.asList(line.split("\t")));
+                }
+            }
+        }
+    }
+
+    /* the trees hold title ids, so they are built anew from the file after the TitleDictionary was reset */
+    private void reload(){
+
+        toGoal.clear();
+        fromStart.clear();
+        try{
+            load();
+        }catch(IOException e){
+            System.out.println(Main.indentation + "ERROR: couldn't read the path cache '" + file + "'");
+        }
+    }
+
+    public static PathCache open(Path file){
+        return OPENED.computeIfAbsent(file.toAbsolutePath().normalize(), absolute -> {
+            try{
+                return new PathCache(absolute);
+            }catch(IOException e){
+                throw new UncheckedIOException("ERROR: couldn't read the path cache '" + file + "'", e);
+            }
+        });
+    }
+
+    /* from the page to the goal (both included), null if none is known */
+    public List<String> getRouteTo(int page, int goal){
+
+        ConcurrentIntIntMap next = toGoal.get(goal);
+        if(page == goal || next == null || !next.containsKey(page)){
+            return null;
+        }
+        List<String> route = new ArrayList<>();
+        for(int id = page; id != goal; id = next.get(id)){
+            /* still being indexed */
+            if(id == NONE){
+                return null;
+            }
+            route.add(TitleDictionary.titleOf(id));
+        }
+        route.add(TitleDictionary.titleOf(goal));
+        return route;
+    }
+
+    /* from the start to the page (both included), null if none is known */
+    public List<String> getRouteFrom(int start, int page){
+
+        ConcurrentIntIntMap previous = fromStart.get(start);
+        if(page == start || previous == null || !previous.containsKey(page)){
+            return null;
+        }
+        List<String> route = new ArrayList<>();
+        for(int id = page; id != start; id = previous.get(id)){
+            if(id == NONE){
+                return null;
+            }
+            route.add(TitleDictionary.titleOf(id));
+        }
+        route.add(TitleDictionary.titleOf(start));
+        Collections.reverse(route);
+        return route;
+    }
+
+    /* a path found by a walk, nothing happens if its start knew a route to its end already */
+    public void add(List<String> path){
+
+        if(path.size() < 2){
+            return;
+        }
+        int start = TitleDictionary.idOf(path.get(0));
+        int end = TitleDictionary.idOf(path.get(path.size() - 1));
+
+        ConcurrentIntIntMap known = toGoal.get(end);
+        if(known != null && known.containsKey(start)){
+            return;
+        }
+        index(path);
+
+        synchronized (this){
+            try{
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                Files.writeString(file, String.join("\t", path) + "\n", StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }catch(IOException e){
+                System.out.println(Main.indentation + "ERROR: couldn't write the path cache '" + file + "'");
+            }
+        }
+    }
+
+    /*
+     * pages that have a route already keep it. every page points to one that got its route before
+     * (or in the same pass, closer to the goal/start), so following the pointers never runs in circles
+     */
+    private void index(List<String> path){
+
+        int[] ids = new int[path.size()];
+        for(int i = 0; i < ids.length; i++){
+            ids[i] = TitleDictionary.idOf(path.get(i));
+        }
+
+        for(int goal = 1; goal < ids.length; goal++){
+            ConcurrentIntIntMap next = toGoal.computeIfAbsent(ids[goal], id -> new ConcurrentIntIntMap());
+
+            for(int page = goal - 1; page >= 0; page--){
+                if(ids[page] != ids[goal]){
+                    next.putIfAbsent(ids[page], ids[page + 1]);
+                }
+            }
+        }
+        for(int start = 0; start < ids.length - 1; start++){
+            ConcurrentIntIntMap previous = fromStart.computeIfAbsent(ids[start], id -> new ConcurrentIntIntMap());
+
+            for(int page = start + 1; page < ids.length; page++){
+                if(ids[page] != ids[start]){
+                    previous.putIfAbsent(ids[page], ids[page - 1]);
+                }
+            }
+        }
+    }
+
+    /* "a > b > c > b > d" becomes "a > b > d" */
+    public static List<String> withoutDetours(List<String> path){
+
+        List<String> shortened = new ArrayList<>();
+        Map<String, Integer> positions = new HashMap<>();
+
+        for(String title : path){
+            Integer position = positions.get(title);
+
+            if(position != null){
+                for(int i = shortened.size() - 1; i > position; i--){
+                    positions.remove(shortened.remove(i));
+                }
+                continue;
+            }
+            positions.put(title, shortened.size());
+            shortened.add(title);
+        }
+        return shortened;
+    }
+}
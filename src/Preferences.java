@@ -1,3 +1,4 @@
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -5,29 +6,82 @@ public class Preferences {
 
     private SearchAlgorithm searchAlgorithm;
     private SearchDirection searchDirection;
+    private LinkSourceType linkSourceType;
     private final Set<Heuristic> heuristics;
 
     private boolean verbose;
+    private boolean cache;
+    private boolean coalesce;
 
     private int maxLinks;
     private int maxCategories;
+    private int categoryDepth;
     private int maxReq;
+    private int maxBytes;
+    private int batchSize;
+    private int concurrency;
+    private int cacheMegabytes;
+    private int cacheTtlHours;
+    private int maxRate;
+    private int retries;
+    private int landmarks;
+    private int beamWidth;
+    private int bfsThreads;
+
+    private String graphFile;
+    private String vectorFile;
+    private String api;
+    private String traceFile;
+    private String statsFile;
+    private String recordingFile;
+    private String pathCacheFile;
+
+    private long seed;
 
     public Preferences(){
 
         searchAlgorithm = SearchAlgorithm.gbfs;
         searchDirection = SearchDirection.uni;
+        linkSourceType = LinkSourceType.http;
         heuristics = new HashSet<Heuristic>();
 
         heuristics.add(Heuristic.hamming);
 
-        maxCategories = 3; /* range  [2; 5] more is not feasible */
+        maxCategories = 3; /* range  [2; 10] */
+        categoryDepth = 1; /* range [0; 3] */
         maxLinks = 10; /* range [5; 500] */
         maxReq = 200; /* range [100; 1000] */
+        maxBytes = 50_000_000; /* received per walk, range [1 MB; 2 GB] */
+        batchSize = 5; /* range [1; 50], the API takes up to 50 titles per request */
+        concurrency = 4; /* range [1; 16] */
         verbose = true;
+
+        cache = true;
+        coalesce = false; /* pays off with concurrent walks (batch, serve) */
+        cacheMegabytes = 64; /* range [1; 1024] */
+        cacheTtlHours = 24; /* range [1; 720] */
+
+        maxRate = 20; /* requests per second, range [1; 200] */
+        retries = 4; /* range [0; 10] */
+        landmarks = 8; /* pages whose distances bound astar (and idastar offline), range [1; 32] */
+        beamWidth = 100; /* nodes per layer of the beam search, range [1; 100000] */
+        bfsThreads = 0; /* of parallel_bfs, 0 = all cores, range [0; 256] */
+
+        graphFile = "wikipedia.graph";
+        vectorFile = ""; /* next to the graph file */
+        api = HttpLinkSource.WIKIPEDIA;
+        traceFile = ""; /* nothing is recorded */
+        statsFile = ""; /* stats aren't exported */
+        recordingFile = ""; /* no flight recording */
+        pathCacheFile = ""; /* routes aren't reused */
+
+        seed = 0; /* a new seed for every walk */
     }
 
-    public void setPref(String variableString, String valueString){
+    public void setPref(String variableString, String rawValueString){
+
+        /* file names are case sensitive, everything else is not */
+        String valueString = Main.normalize(rawValueString);
 
         switch(variableString){
             case "verbose":
@@ -39,15 +93,81 @@ public class Preferences {
             case "max_categories":
                 maxCategories = mapToRange(Integer.parseInt(valueString), 2, 10);
                 return;
+            case "category_depth":
+                categoryDepth = mapToRange(Integer.parseInt(valueString), 0, 3);
+                return;
             case "max_req":
                 maxReq = mapToRange(Integer.parseInt(valueString), 100, 1000);
                 return;
+            case "max_bytes":
+                maxBytes = mapToRange(Integer.parseInt(valueString), 1_000_000, 2_000_000_000);
+                return;
+            case "batch_size":
+                batchSize = mapToRange(Integer.parseInt(valueString), 1, HttpLinkSource.MAX_TITLES);
+                return;
+            case "concurrency":
+                concurrency = mapToRange(Integer.parseInt(valueString), 1, 16);
+                return;
             case "search_dir":
                 searchDirection = SearchDirection.valueOf(valueString);
                 return;
             case "search":
                 searchAlgorithm = SearchAlgorithm.valueOf(valueString);
                 return;
+            case "cache":
+                cache = Boolean.parseBoolean(valueString);
+                return;
+            case "max_rate":
+                maxRate = mapToRange(Integer.parseInt(valueString), 1, 200);
+                return;
+            case "retries":
+                retries = mapToRange(Integer.parseInt(valueString), 0, 10);
+                return;
+            case "bfs_threads":
+                bfsThreads = mapToRange(Integer.parseInt(valueString), 0, 256);
+                return;
+            case "beam_width":
+                beamWidth = mapToRange(Integer.parseInt(valueString), 1, 100_000);
+                return;
+            case "landmarks":
+                landmarks = mapToRange(Integer.parseInt(valueString), 1, 32);
+                return;
+            case "coalesce":
+                coalesce = Boolean.parseBoolean(valueString);
+                return;
+            case "cache_mb":
+                cacheMegabytes = mapToRange(Integer.parseInt(valueString), 1, 1024);
+                return;
+            case "cache_ttl":
+                cacheTtlHours = mapToRange(Integer.parseInt(valueString), 1, 720);
+                return;
+            case "source":
+                linkSourceType = LinkSourceType.valueOf(valueString);
+                return;
+            case "graph":
+                graphFile = rawValueString.trim();
+                return;
+            case "vectors":
+                vectorFile = rawValueString.trim();
+                return;
+            case "api":
+                api = rawValueString.trim().replaceAll("/+$", "");
+                return;
+            case "record":
+                traceFile = rawValueString.trim();
+                return;
+            case "jfr":
+                recordingFile = rawValueString.trim();
+                return;
+            case "path_cache":
+                pathCacheFile = rawValueString.trim();
+                return;
+            case "stats_file":
+                statsFile = rawValueString.trim();
+                return;
+            case "seed":
+                seed = Long.parseLong(valueString);
+                return;
         }
 
         /* assigment must concern heuristics */
@@ -75,9 +195,31 @@ public class Preferences {
         sb.append(Main.indentation + "verbose: " + verbose + "\n");
         sb.append(Main.indentation + "search: " + searchAlgorithm + "\n");
         sb.append(Main.indentation + "search_dir: " + searchDirection + "\n");
+        sb.append(Main.indentation + "beam_width: " + beamWidth + "\n");
+        sb.append(Main.indentation + "bfs_threads: " + bfsThreads + "\n");
+        sb.append(Main.indentation + "landmarks: " + landmarks + "\n");
         sb.append(Main.indentation + "max_links: " + maxLinks + "\n");
         sb.append(Main.indentation + "max_categories: " + maxCategories + "\n");
+        sb.append(Main.indentation + "category_depth: " + categoryDepth + "\n");
         sb.append(Main.indentation + "max_req: " + maxReq + "\n");
+        sb.append(Main.indentation + "max_bytes: " + maxBytes + "\n");
+        sb.append(Main.indentation + "batch_size: " + batchSize + (getBatchSize() != batchSize ? " (1 with astar)" : "") + "\n");
+        sb.append(Main.indentation + "concurrency: " + concurrency + (getConcurrency() != concurrency ? " (1 with astar)" : "") + "\n");
+        sb.append(Main.indentation + "source: " + linkSourceType + "\n");
+        sb.append(Main.indentation + "graph: " + graphFile + "\n");
+        sb.append(Main.indentation + "vectors: " + getVectorFile() + "\n");
+        sb.append(Main.indentation + "api: " + api + "\n");
+        sb.append(Main.indentation + "record: " + traceFile + "\n");
+        sb.append(Main.indentation + "seed: " + seed + "\n");
+        sb.append(Main.indentation + "stats_file: " + statsFile + "\n");
+        sb.append(Main.indentation + "jfr: " + recordingFile + "\n");
+        sb.append(Main.indentation + "path_cache: " + pathCacheFile + "\n");
+        sb.append(Main.indentation + "cache: " + cache + "\n");
+        sb.append(Main.indentation + "cache_mb: " + cacheMegabytes + "\n");
+        sb.append(Main.indentation + "cache_ttl: " + cacheTtlHours + "\n");
+        sb.append(Main.indentation + "coalesce: " + coalesce + "\n");
+        sb.append(Main.indentation + "max_rate: " + maxRate + "\n");
+        sb.append(Main.indentation + "retries: " + retries + "\n");
 
         sb.append("\n" + Main.indentation + "heuristics:\n");
         for(Heuristic heuristic : Heuristic.values()){
@@ -96,14 +238,110 @@ public class Preferences {
         return searchDirection;
     }
 
+    public LinkSourceType getLinkSourceType() {
+        return linkSourceType;
+    }
+
+    public String getGraphFile(){
+        return graphFile;
+    }
+
+    /* of the embedding heuristic */
+    public String getVectorFile(){
+        return vectorFile.isEmpty() ? VectorStore.getPath(Path.of(graphFile)).toString() : vectorFile;
+    }
+
+    public String getApi(){
+        return api;
+    }
+
+    /* empty if nothing is recorded */
+    public String getTraceFile(){
+        return traceFile;
+    }
+
+    /* empty if the stats of a walk aren't exported */
+    public String getStatsFile(){
+        return statsFile;
+    }
+
+    /* empty if walks aren't flight recorded */
+    public String getRecordingFile(){
+        return recordingFile;
+    }
+
+    /* empty if routes of earlier walks aren't reused */
+    public String getPathCacheFile(){
+        return pathCacheFile;
+    }
+
+    /* 0 if every walk gets a new one */
+    public long getSeed(){
+        return seed;
+    }
+
+    public boolean isCacheEnabled(){
+        return cache;
+    }
+
+    public int getMaxRate(){
+        return maxRate;
+    }
+
+    public int getRetries(){
+        return retries;
+    }
+
+    public boolean isCoalescing(){
+        return coalesce;
+    }
+
+    public int getCacheMegabytes(){
+        return cacheMegabytes;
+    }
+
+    public int getCacheTtlHours(){
+        return cacheTtlHours;
+    }
+
+    /* 0 = all cores */
+    public int getBfsThreads(){
+        return bfsThreads;
+    }
+
+    public int getBeamWidth(){
+        return beamWidth;
+    }
+
+    public int getLandmarks(){
+        return landmarks;
+    }
+
     public int getMaxLinks(){
         return maxLinks;
     }
 
+    /* A* expands one page at a time, a batch would take pages that aren't the cheapest and lose the shortest path */
+    public int getBatchSize(){
+        return searchAlgorithm == SearchAlgorithm.astar ? 1 : batchSize;
+    }
+
+    public int getConcurrency(){
+        return searchAlgorithm == SearchAlgorithm.astar ? 1 : concurrency;
+    }
+
     public int getMaxReq(){
         return maxReq;
     }
 
+    public int getMaxBytes(){
+        return maxBytes;
+    }
+
+    public boolean isEnabled(Heuristic heuristic){
+        return heuristics.contains(heuristic);
+    }
+
     public boolean mostCategoriesMatchingEnabled(){
         return heuristics.contains(Heuristic.most_categories);
     }
@@ -123,4 +361,8 @@ public class Preferences {
     public int getMaxCategories(){
         return maxCategories;
     }
+
+    public int getCategoryDepth(){
+        return categoryDepth;
+    }
 }
@@ -0,0 +1,197 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * every request to the API goes through here, shared by all walks:
+ * - token bucket: at most 'rate' requests per second (bursts of up to one second)
+ * - 429 / maxlag / 5xx / connection errors are retried with jittered exponential backoff,
+ *   Retry-After is honored and pauses the whole bucket
+ * - the rate adapts: it is halved when throttled, cut by a quarter when latency doubles, and grows back slowly
+ */
+public class RequestScheduler {
+
+    private static final double MIN_RATE = 1.0;
+    private static final long BASE_BACKOFF_MILLIS = 250;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final HttpClient client;
+    private final double maxRate;
+    private final int retries;
+
+    /* guarded by this */
+    private double rate;
+    private long nextFreeNanos;
+    private double latencyAverage;
+    private double latencyBaseline;
+    private long lastDecreaseNanos;
+
+    public RequestScheduler(HttpClient client, double maxRate, int retries){
+        this.client = client;
+        this.maxRate = maxRate;
+        this.retries = retries;
+
+        this.rate = maxRate;
+        this.nextFreeNanos = System.nanoTime();
+        this.lastDecreaseNanos = nextFreeNanos - 1_000_000_000L;
+    }
+
+    /* completes exceptionally once all retries failed */
+    public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, Statistics stats){
+        return send(request, handler, stats, 0);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                        Statistics stats, int attempt){
+
+        long wait = reserve();
+        CompletableFuture<Void> slot = wait <= 0 ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS));
+
+        return slot
+                .thenCompose(ready -> {
+                    long sent = System.nanoTime();
+                    return client.sendAsync(request, handler)
+                            .handle((response, e) -> new Attempt<>(response, e, System.nanoTime() - sent));
+                })
+                .thenCompose(result -> {
+
+                    long retryAfter = -1;
+
+                    if(result.error == null){
+                        HttpResponse<T> response = result.response;
+
+                        if(!isThrottled(response) && response.statusCode() < 500){
+                            onSuccess(result.nanos);
+                            return CompletableFuture.completedFuture(response);
+                        }
+                        if(isThrottled(response)){
+                            stats.countThrottled();
+                            retryAfter = getRetryAfterMillis(response);
+                            onThrottled(retryAfter);
+                        }
+                        discard(response);
+                    }
+
+                    if(attempt >= retries){
+                        Throwable cause = result.error != null ? result.error
+                                : new IOException("HTTP " + result.response.statusCode() + " after " + (attempt + 1) + " attempts");
+                        return CompletableFuture.failedFuture(cause instanceof CompletionException ? cause.getCause() : cause);
+                    }
+
+                    stats.countRetry();
+                    long backoff = retryAfter >= 0 ? retryAfter : getBackoffMillis(attempt);
+
+                    return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS))
+                            .thenCompose(done -> send(request, handler, stats, attempt + 1));
+                });
+    }
+
+    /* nanoseconds until this request may go out */
+    private synchronized long reserve(){
+
+        long now = System.nanoTime();
+        long interval = (long) (1e9 / rate);
+
+        /* unused tokens of up to one second can be spent at once */
+        nextFreeNanos = Math.max(nextFreeNanos, now - (long) (rate * interval));
+        nextFreeNanos += interval;
+
+        return nextFreeNanos - now;
+    }
+
+    private synchronized void onSuccess(long nanos){
+
+        latencyAverage = latencyAverage == 0 ? nanos : 0.9 * latencyAverage + 0.1 * nanos;
+
+        /* follows drops right away and rises slowly, so only sudden slowdowns stand out */
+        if(latencyBaseline == 0 || latencyAverage < latencyBaseline){
+            latencyBaseline = latencyAverage;
+        }else{
+            latencyBaseline += 0.01 * (latencyAverage - latencyBaseline);
+        }
+
+        /* the server slows down: back off before it starts throttling */
+        if(latencyAverage > 2 * latencyBaseline){
+            decrease(0.75);
+        }else{
+            /* about one more request per second, each second */
+            rate = Math.min(maxRate, rate + 1.0 / rate);
+        }
+    }
+
+    private synchronized void onThrottled(long retryAfterMillis){
+
+        decrease(0.5);
+        if(retryAfterMillis > 0){
+            /* nobody sends anything before the server wants to hear from us again */
+            nextFreeNanos = Math.max(nextFreeNanos, System.nanoTime() + retryAfterMillis * 1_000_000);
+        }
+    }
+
+    /* at most once per second, one bad moment shouldn't drive the rate down to the minimum */
+    private void decrease(double factor){
+
+        long now = System.nanoTime();
+        if(now - lastDecreaseNanos < 1_000_000_000L){
+            return;
+        }
+        lastDecreaseNanos = now;
+        rate = Math.max(MIN_RATE, rate * factor);
+    }
+
+    public synchronized double getRate(){
+        return rate;
+    }
+
+    /* 429, or the API's maxlag error (replication lag too high) */
+    private static boolean isThrottled(HttpResponse<?> response){
+        return response.statusCode() == 429
+                || response.headers().firstValue("MediaWiki-API-Error").map("maxlag"::equals).orElse(false);
+    }
+
+    /* seconds as sent by the server, -1 if none */
+    private static long getRetryAfterMillis(HttpResponse<?> response){
+        try{
+            return response.headers().firstValue("Retry-After").map(value -> Long.parseLong(value.trim()) * 1000).orElse(-1L);
+        }catch(NumberFormatException e){
+            /* an HTTP date - not worth parsing */
+            return -1;
+        }
+    }
+
+    /* full jitter: anywhere between 0 and the exponential bound */
+    private static long getBackoffMillis(int attempt){
+        long bound = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    private static void discard(HttpResponse<?> response){
+        if(response.body() instanceof Closeable){
+            try{
+                ((Closeable) response.body()).close();
+            }catch(IOException ignored){
+                /* nothing to be saved */
+            }
+        }
+    }
+
+    private static class Attempt<T> {
+
+        private final HttpResponse<T> response;
+        private final Throwable error;
+        private final long nanos;
+
+        private Attempt(HttpResponse<T> response, Throwable error, long nanos){
+            this.response = response;
+            this.error = error;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+import jdk.jfr.*;
+
+/* all heuristics evaluated for one node */
+@Name("wikiwalker.Score")
+@Label("Assign Costs")
+@Category("Wiki-Walker")
+@Description("heuristic scoring of one node (WalkerUtils.assignCostsTo)")
+@StackTrace(false)
+public class ScoreEvent extends Event {
+
+    @Label("Title")
+    String title;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Cost")
+    double cost;
+}
@@ -1,3 +1,3 @@
 public enum SearchAlgorithm {
-    bfs, gbfs;
+    bfs, gbfs, astar, beam, idastar, parallel_bfs;
 }
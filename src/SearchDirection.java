@@ -1,4 +1,4 @@
 
 public enum SearchDirection{
-    uni, bi;
+    uni, bi, balanced;
 }
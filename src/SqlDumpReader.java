@@ -0,0 +1,167 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/* streams the tuples of the "INSERT INTO ... VALUES (..),(..);" statements of a MediaWiki sql dump */
+public class SqlDumpReader {
+
+    private final Reader reader;
+
+    public SqlDumpReader(Path path) throws IOException {
+
+        InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+
+        if(path.toString().endsWith(".gz")){
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /*
+     * the column names of the "CREATE TABLE" statement in front of the first "INSERT INTO", empty if
+     * there is none. call it before forEachTuple, the columns tell which schema a dump has
+     */
+    public List<String> readColumns() throws IOException {
+
+        StringBuilder header = new StringBuilder();
+        List<String> columns = new ArrayList<>();
+
+        if(!skipTo("INSERT INTO", header)){
+            return columns;
+        }
+        int create = header.indexOf("CREATE TABLE");
+        if(create < 0){
+            return columns;
+        }
+        /* "  `pl_from` int(8) unsigned NOT NULL," - keys and constraints don't start with a back tick */
+        for(String line : header.substring(create).split("\n")){
+            String trimmed = line.trim();
+
+            if(trimmed.startsWith(")")){
+                break;
+            }
+            if(trimmed.startsWith("`") && trimmed.indexOf('`', 1) > 0){
+                columns.add(trimmed.substring(1, trimmed.indexOf('`', 1)));
+            }
+        }
+        return columns;
+    }
+
+    /* every tuple is handed over as its list of fields, NULL becomes null */
+    public void forEachTuple(Consumer<List<String>> consumer) throws IOException {
+
+        try(reader){
+            while(skipTo("VALUES")){
+                readTuples(consumer);
+            }
+        }
+    }
+
+    /* skips everything up to and including the given keyword */
+    private boolean skipTo(String keyword) throws IOException {
+        return skipTo(keyword, null);
+    }
+
+    /* the same, what was skipped is appended to 'skipped' (if given) */
+    private boolean skipTo(String keyword, StringBuilder skipped) throws IOException {
+
+        int matched = 0;
+        int c;
+
+        while((c = reader.read()) != -1){
+            if(skipped != null){
+                skipped.append((char) c);
+            }
+            if(c == keyword.charAt(matched)){
+                matched++;
+                if(matched == keyword.length()){
+                    return true;
+                }
+            }else{
+                matched = c == keyword.charAt(0) ? 1 : 0;
+            }
+        }
+        return false;
+    }
+
+    private void readTuples(Consumer<List<String>> consumer) throws IOException {
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+
+        boolean inTuple = false;
+        boolean quoted = false;
+        int c;
+
+        while((c = reader.read()) != -1){
+
+            if(!inTuple){
+                if(c == '('){
+                    inTuple = true;
+                    fields = new ArrayList<>();
+                }else if(c == ';'){
+                    /* end of statement */
+                    return;
+                }
+                continue;
+            }
+
+            switch(c){
+                case '\'':
+                    field.append(readQuoted());
+                    quoted = true;
+                    break;
+                case ',':
+                    fields.add(toField(field, quoted));
+                    quoted = false;
+                    break;
+                case ')':
+                    fields.add(toField(field, quoted));
+                    quoted = false;
+                    inTuple = false;
+                    consumer.accept(fields);
+                    break;
+                default:
+                    field.append((char) c);
+            }
+        }
+    }
+
+    private String readQuoted() throws IOException {
+
+        StringBuilder sb = new StringBuilder();
+        int c;
+
+        while((c = reader.read()) != -1){
+            if(c == '\''){
+                return sb.toString();
+            }
+            if(c == '\\'){
+                c = reader.read();
+                switch(c){
+                    case 'n': sb.append('\n'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'r': sb.append('\r'); break;
+                    case '0': sb.append('\0'); break;
+                    default: sb.append((char) c);
+                }
+                continue;
+            }
+            sb.append((char) c);
+        }
+        throw new EOFException("unterminated string in sql dump");
+    }
+
+    private static String toField(StringBuilder field, boolean quoted){
+
+        String value = quoted ? field.toString() : field.toString().trim();
+        field.setLength(0);
+
+        return !quoted && value.equals("NULL") ? null : value;
+    }
+}
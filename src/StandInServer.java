@@ -0,0 +1,277 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * local stand-in for the MediaWiki API: replays a recorded trace or answers from a graph
+ * (offline graph file or a seeded synthetic one), with injected latency, jitter and 429s.
+ * point the walker at it with "set api http://localhost:<port>"
+ *
+ * usage: java StandInServer [port=8080] (trace=<file> | graph=<file> | synthetic=<#pages> [degree=8])
+ *                           [latency=<ms>] [jitter=<ms>] [throttle=<share of 429s>] [seed=<n>]
+ */
+public class StandInServer {
+
+    /* entries per response, like "limit=max" for non-bots */
+    private static final int MAX_ENTRIES = 500;
+
+    private final ApiTrace trace;
+    private final LinkSource source;
+
+    private final int latency, jitter;
+    private final double throttle;
+    private final Random random;
+
+    /* requests made to the source aren't of interest */
+    private final Statistics stats;
+
+    public StandInServer(ApiTrace trace, LinkSource source, int latency, int jitter, double throttle, long seed){
+        this.trace = trace;
+        this.source = source;
+        this.latency = latency;
+        this.jitter = jitter;
+        this.throttle = throttle;
+        this.random = new Random(seed);
+        this.stats = new Statistics();
+    }
+
+    public HttpServer start(int port) throws IOException {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", this::handle);
+
+        /* sleeping handlers must not hold up the others */
+        ExecutorService executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        try(exchange){
+            URI uri = exchange.getRequestURI();
+            String request = exchange.getRequestMethod() + " " + uri.getRawPath()
+                    + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+
+            long delay;
+            boolean throttled;
+            synchronized (random){
+                delay = latency + (jitter > 0 ? random.nextInt(jitter + 1) : 0);
+                throttled = random.nextDouble() < throttle;
+            }
+
+            Thread.sleep(delay);
+
+            if(throttled){
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 429, "{\"error\":{\"code\":\"ratelimited\",\"info\":\"You've exceeded your rate limit.\"}}");
+            }
+            else if(trace != null){
+                ApiTrace.Exchange answer = trace.next(request);
+
+                if(answer == null){
+                    System.err.println(Main.indentation + "not in trace: " + request);
+                    respond(exchange, 404, "{\"error\":{\"code\":\"notrecorded\"}}");
+                }else{
+                    respond(exchange, answer.getStatus(), answer.getBody());
+                }
+            }
+            else if(uri.getRawPath().startsWith("/wiki/")){
+                String title = URLDecoder.decode(uri.getRawPath().substring("/wiki/".length()), StandardCharsets.UTF_8);
+                respond(exchange, source.pageExists(normalize(title)) ? 200 : 404, "");
+            }
+            else if(uri.getRawPath().equals("/w/api.php")){
+                respond(exchange, 200, query(parseQuery(uri.getRawQuery())));
+            }
+            else{
+                respond(exchange, 404, "");
+            }
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }catch(RuntimeException e){
+            e.printStackTrace();
+        }
+    }
+
+    /* "action=query&prop=links|linkshere|categories&titles=..." with continuation, without prop only the pages */
+    private String query(Map<String, String> params){
+
+        String prop = params.getOrDefault("prop", "");
+        String prefix = prop.equals("links") ? "pl" : prop.equals("linkshere") ? "lh" : "cl";
+        int namespace = prop.equals("categories") ? 14 : 0;
+        int offset = Integer.parseInt(params.getOrDefault(prefix + "continue", "0"));
+
+        List<String> requested = new ArrayList<>(new LinkedHashSet<>(
+                Arrays.asList(params.getOrDefault("titles", "").split("\\|"))));
+
+        /* all entries of all pages in one list, a response holds a slice of it */
+        List<String> titles = new ArrayList<>();
+        List<List<String>> entries = new ArrayList<>();
+        int total = 0;
+
+        for(String title : requested){
+            String normalized = normalize(title);
+            List<String> list = prop.isEmpty() || !source.pageExists(normalized) ? List.of()
+                    : prop.equals("categories") ? source.getCategories(normalized, stats)
+                    : source.getLinks(normalized, prop.equals("links") ? Direction.forward : Direction.backward, stats);
+
+            titles.add(normalized);
+            entries.add(list);
+            total += list.size();
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+
+        if(offset + MAX_ENTRIES < total){
+            sb.append("\"continue\":{\"").append(prefix).append("continue\":\"").append(offset + MAX_ENTRIES)
+                    .append("\",\"continue\":\"||\"},");
+        }
+        sb.append("\"query\":{");
+
+        /* e.g. "albert_einstein" is answered as "Albert Einstein" */
+        List<String> normalizations = new ArrayList<>();
+        for(int i = 0; i < requested.size(); i++){
+            if(!requested.get(i).equals(titles.get(i))){
+                normalizations.add("{\"from\":" + JsonWriter.quote(requested.get(i)) + ",\"to\":" + JsonWriter.quote(titles.get(i)) + "}");
+            }
+        }
+        if(!normalizations.isEmpty()){
+            sb.append("\"normalized\":[").append(String.join(",", normalizations)).append("],");
+        }
+
+        sb.append("\"pages\":{");
+        int position = 0, missing = 0;
+
+        for(int i = 0; i < titles.size(); i++){
+            if(i > 0){
+                sb.append(",");
+            }
+            boolean exists = source.pageExists(titles.get(i));
+            int pageId = exists ? i + 1 : -(++missing);
+
+            sb.append("\"").append(pageId).append("\":{\"pageid\":").append(pageId).append(",\"ns\":0,\"title\":");
+            JsonWriter.quote(sb, titles.get(i));
+            if(!exists){
+                sb.append(",\"missing\":\"\"");
+            }
+
+            List<String> list = entries.get(i);
+            int from = Math.max(offset - position, 0), to = Math.min(offset + MAX_ENTRIES - position, list.size());
+            position += list.size();
+
+            if(from < to){
+                sb.append(",\"").append(prop).append("\":[");
+                for(int j = from; j < to; j++){
+                    sb.append(j > from ? "," : "").append("{\"ns\":").append(namespace).append(",\"title\":");
+                    JsonWriter.quote(sb, list.get(j));
+                    sb.append("}");
+                }
+                sb.append("]");
+            }
+            sb.append("}");
+        }
+        sb.append("}}}");
+        return sb.toString();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery){
+
+        Map<String, String> params = new HashMap<>();
+        if(rawQuery == null){
+            return params;
+        }
+        for(String param : rawQuery.split("&")){
+            int equals = param.indexOf('=');
+            if(equals > 0){
+                params.put(param.substring(0, equals), URLDecoder.decode(param.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    /* "albert_einstein" -> "Albert einstein", the way MediaWiki normalizes titles */
+    private static String normalize(String title){
+        return TitleResolver.normalize(title);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+
+        /* like Wikipedia, compress if the client accepts it */
+        String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if(accepted != null && accepted.contains("gzip") && bytes.length > 0){
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try(GZIPOutputStream gzip = new GZIPOutputStream(compressed)){
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, head || bytes.length == 0 ? -1 : bytes.length);
+
+        if(!head && bytes.length > 0){
+            try(OutputStream out = exchange.getResponseBody()){
+                out.write(bytes);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Map<String, String> options = new HashMap<>();
+        for(String arg : args){
+            int equals = arg.indexOf('=');
+            if(equals < 0){
+                System.out.println(Main.indentation + "ERROR: expected option=value, got '" + arg + "'");
+                return;
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        ApiTrace trace = null;
+        LinkSource source = null;
+        String description;
+
+        if(options.containsKey("trace")){
+            trace = ApiTrace.load(Path.of(options.get("trace")));
+            description = "replaying " + trace.size() + " exchanges of '" + options.get("trace") + "'";
+        }else if(options.containsKey("graph")){
+            source = new GraphLinkSource(Path.of(options.get("graph")));
+            description = "serving '" + options.get("graph") + "'";
+        }else{
+            int pages = Integer.parseInt(options.getOrDefault("synthetic", "20000"));
+            int degree = Integer.parseInt(options.getOrDefault("degree", "8"));
+            SyntheticGraph graph = new SyntheticGraph(pages, degree, Math.max(1, pages / 40), seed);
+            source = graph;
+            description = "serving a synthetic graph of " + pages + " pages (e.g. '" + graph.getTitle(0) + "', '" + graph.getTitle(1) + "')";
+        }
+
+        StandInServer standIn = new StandInServer(trace, source,
+                Integer.parseInt(options.getOrDefault("latency", "0")),
+                Integer.parseInt(options.getOrDefault("jitter", "0")),
+                Double.parseDouble(options.getOrDefault("throttle", "0")), seed);
+
+        int port = Integer.parseInt(options.getOrDefault("port", "8080"));
+        standIn.start(port);
+
+        System.out.println(Main.indentation + description + " on http://localhost:" + port);
+    }
+}
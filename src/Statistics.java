@@ -1,17 +1,293 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * KPIs of the last walk. written from the walker and the http threads at the same time,
+ * so everything on the hot path is a striped counter (no locks)
+ */
 public class Statistics {
 
-    // TODO: add more KPIs later
-    private int numberOfRequests;
+    private static final long NOT_MET = -1;
+
+    /* shared by both threads of a bidirectional walk */
+    private final LongAdder numberOfRequests;
+
+    /* lookups answered by the response cache, no request involved */
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
+
+    /* lookups that waited for the same lookup of another walk (or direction) */
+    private final LongAdder coalesced;
+
+    /* not part of the requests above: repeated attempts, 429/maxlag answers, lookups given up */
+    private final LongAdder retries;
+    private final LongAdder throttled;
+    private final LongAdder failures;
+
+    /* time until the response (headers) arrived, per kind of lookup */
+    private final LatencyHistogram linksLatency;
+    private final LatencyHistogram linkshereLatency;
+    private final LatencyHistogram categoriesLatency;
+
+    private final LongAdder bytesReceived;
+    private final LongAdder parseNanos;
+
+    private final LongAdder nodesExpanded;
+    private final LongAccumulator peakFrontier;
+    private final LongAccumulator peakExplored;
+    /* children that didn't fit into a bounded frontier (beam) */
+    private final LongAdder pruned;
+    /*
+     * work spent on a page twice: lookups of a page already looked up in the same direction, frontier
+     * entries polled only to be thrown away (explored already) and offers rejected at enqueue instead
+     */
+    private final LongAdder wastedLookups;
+    private final LongAdder stalePolls;
+    private final LongAdder duplicatesRejected;
+    /* links of the solution taken from the path cache */
+    private volatile int reusedLinks;
+
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private final AtomicLong meetNanos;
+    private volatile int pathLength;
 
     public Statistics(){
+        numberOfRequests = new LongAdder();
+        cacheHits = new LongAdder();
+        cacheMisses = new LongAdder();
+        coalesced = new LongAdder();
+
+        retries = new LongAdder();
+        throttled = new LongAdder();
+        failures = new LongAdder();
+
+        linksLatency = new LatencyHistogram();
+        linkshereLatency = new LatencyHistogram();
+        categoriesLatency = new LatencyHistogram();
+
+        bytesReceived = new LongAdder();
+        parseNanos = new LongAdder();
+
+        nodesExpanded = new LongAdder();
+        peakFrontier = new LongAccumulator(Math::max, 0);
+        peakExplored = new LongAccumulator(Math::max, 0);
+        pruned = new LongAdder();
+        wastedLookups = new LongAdder();
+        stalePolls = new LongAdder();
+        duplicatesRejected = new LongAdder();
+
+        meetNanos = new AtomicLong(NOT_MET);
+        startNanos = System.nanoTime();
+    }
+
+    /* at the start of a walk */
+    public void reset(){
+        numberOfRequests.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        coalesced.reset();
+
+        retries.reset();
+        throttled.reset();
+        failures.reset();
+
+        linksLatency.reset();
+        linkshereLatency.reset();
+        categoriesLatency.reset();
+
+        bytesReceived.reset();
+        parseNanos.reset();
+
+        nodesExpanded.reset();
+        peakFrontier.reset();
+        peakExplored.reset();
+        pruned.reset();
+        wastedLookups.reset();
+        stalePolls.reset();
+        duplicatesRejected.reset();
+        reusedLinks = 0;
+
+        meetNanos.set(NOT_MET);
+        pathLength = 0;
+        endNanos = 0;
+        startNanos = System.nanoTime();
+    }
+
+    public void finishWalk(){
+        endNanos = System.nanoTime();
+    }
+
+    public void countCacheHit(){
+        cacheHits.increment();
+    }
+
+    public void countCacheMisses(int misses){
+        cacheMisses.add(misses);
+    }
+
+    public void countCoalesced(int lookups){
+        coalesced.add(lookups);
+    }
+
+    public void countRetry(){
+        retries.increment();
+    }
+
+    public void countThrottled(){
+        throttled.increment();
+    }
+
+    public void countFailure(){
+        failures.increment();
+    }
+
+    public double getCacheHitRatio(){
+        long hits = cacheHits.sum();
+        long lookups = hits + cacheMisses.sum();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
 
+    public void countRequest(){
+        numberOfRequests.increment();
     }
 
-    public void setNumberOfRequests(int value){
-        numberOfRequests = value;
+    public int getNumberOfRequests(){
+        return numberOfRequests.intValue();
+    }
+
+    /* prop is "links", "linkshere" or "categories" */
+    public void recordLatency(String prop, long nanos){
+        getLatency(prop).record(nanos);
+    }
+
+    /* as received, i.e. compressed */
+    public void countBytes(long bytes){
+        bytesReceived.add(bytes);
+    }
+
+    public long getBytesReceived(){
+        return bytesReceived.sum();
+    }
+
+    public void recordParse(long nanos){
+        parseNanos.add(nanos);
+    }
+
+    public void countExpanded(int nodes){
+        nodesExpanded.add(nodes);
+    }
+
+    public void recordFrontier(int size){
+        peakFrontier.accumulate(size);
+    }
+
+    public void recordExplored(int size){
+        peakExplored.accumulate(size);
+    }
+
+    public void countPruned(long nodes){
+        pruned.add(nodes);
+    }
+
+    public void countWastedLookup(){
+        wastedLookups.increment();
+    }
+
+    public void countStalePoll(){
+        stalePolls.increment();
+    }
+
+    public void countDuplicateRejected(){
+        duplicatesRejected.increment();
+    }
+
+    /* the goal was reached (unidirectional) or both sides met, only the first time counts */
+    public void recordMeet(){
+        meetNanos.compareAndSet(NOT_MET, System.nanoTime() - startNanos);
+    }
+
+    public void setReusedLinks(int reusedLinks){
+        this.reusedLinks = reusedLinks;
+    }
+
+    public void setPathLength(int pathLength){
+        this.pathLength = pathLength;
+    }
+
+    public LatencyHistogram getLatency(String prop){
+        switch(prop){
+            case "links":
+                return linksLatency;
+            case "linkshere":
+                return linkshereLatency;
+            default:
+                return categoriesLatency;
+        }
+    }
+
+    /* up to now if the walk is still running */
+    public double getDurationMillis(){
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return (end - startNanos) / 1e6;
+    }
+
+    public double getNodesPerSecond(){
+        double seconds = getDurationMillis() / 1000.0;
+        return seconds == 0 ? 0.0 : nodesExpanded.sum() / seconds;
     }
 
     public void printStats(){
-        System.out.println(Main.indentation + "# requests: " + numberOfRequests);
+        System.out.println(Main.indentation + "# requests: " + numberOfRequests.sum());
+        System.out.println(Main.indentation + "# cache hits: " + cacheHits.sum()
+                + String.format(" (%.1f %%)", 100 * getCacheHitRatio()));
+        System.out.println(Main.indentation + "# coalesced lookups: " + coalesced.sum());
+        System.out.println(Main.indentation + "# retries: " + retries.sum() + ", # throttled: " + throttled.sum()
+                + ", # failed lookups: " + failures.sum());
+        System.out.println(Main.indentation + String.format(Locale.ROOT, "execution time: %.1f ms", getDurationMillis()));
+        System.out.println(Main.indentation + String.format(Locale.ROOT, "# nodes expanded: %d (%.1f / s)",
+                nodesExpanded.sum(), getNodesPerSecond()));
+        System.out.println(Main.indentation + "peak frontier: " + peakFrontier.get() + ", peak explored: " + peakExplored.get()
+                + ", # pruned: " + pruned.sum());
+        System.out.println(Main.indentation + "# wasted lookups: " + wastedLookups.sum() + ", # stale polls: " + stalePolls.sum()
+                + ", # duplicates rejected: " + duplicatesRejected.sum());
+        System.out.println(Main.indentation + "path length: " + (pathLength == 0 ? "-" : pathLength)
+                + (reusedLinks == 0 ? "" : " (" + reusedLinks + " links from the path cache)"));
+        System.out.println(Main.indentation + "time to meet: "
+                + (meetNanos.get() == NOT_MET ? "-" : String.format(Locale.ROOT, "%.1f ms", meetNanos.get() / 1e6)));
+        System.out.println(Main.indentation + String.format(Locale.ROOT, "received: %.1f KB, parsing: %.1f ms",
+                bytesReceived.sum() / 1024.0, parseNanos.sum() / 1e6));
+
+        for(String prop : new String[]{"links", "linkshere", "categories"}){
+            if(getLatency(prop).getCount() > 0){
+                System.out.println(Main.indentation + "latency " + prop + ": " + getLatency(prop));
+            }
+        }
+    }
+
+    /* one object per walk, see the "stats_file" preference */
+    public String toJson(){
+
+        StringBuilder sb = new StringBuilder("{");
+        sb.append(String.format(Locale.ROOT, "\"requests\":%d,\"cacheHits\":%d,\"cacheMisses\":%d,\"coalesced\":%d,",
+                numberOfRequests.sum(), cacheHits.sum(), cacheMisses.sum(), coalesced.sum()));
+        sb.append(String.format(Locale.ROOT, "\"retries\":%d,\"throttled\":%d,\"failures\":%d,",
+                retries.sum(), throttled.sum(), failures.sum()));
+        sb.append(String.format(Locale.ROOT, "\"durationMillis\":%.3f,\"nodesExpanded\":%d,\"nodesPerSecond\":%.3f,",
+                getDurationMillis(), nodesExpanded.sum(), getNodesPerSecond()));
+        sb.append(String.format(Locale.ROOT, "\"peakFrontier\":%d,\"peakExplored\":%d,\"pruned\":%d,\"pathLength\":%d,",
+                peakFrontier.get(), peakExplored.get(), pruned.sum(), pathLength));
+        sb.append(String.format(Locale.ROOT, "\"wastedLookups\":%d,\"stalePolls\":%d,\"duplicatesRejected\":%d,\"reusedLinks\":%d,",
+                wastedLookups.sum(), stalePolls.sum(), duplicatesRejected.sum(), reusedLinks));
+        sb.append("\"timeToMeetMillis\":").append(meetNanos.get() == NOT_MET ? "null"
+                : String.format(Locale.ROOT, "%.3f", meetNanos.get() / 1e6)).append(",");
+        sb.append(String.format(Locale.ROOT, "\"bytesReceived\":%d,\"parseMillis\":%.3f,",
+                bytesReceived.sum(), parseNanos.sum() / 1e6));
+        sb.append("\"latency\":{\"links\":").append(linksLatency.toJson())
+                .append(",\"linkshere\":").append(linkshereLatency.toJson())
+                .append(",\"categories\":").append(categoriesLatency.toJson()).append("}}");
+        return sb.toString();
     }
 }
@@ -0,0 +1,104 @@
+import java.util.*;
+
+/* seeded random link graph held in memory, a LinkSource without network or files */
+public class SyntheticGraph implements LinkSource {
+
+    private static final String[] SYLLABLES = {"al", "ber", "ein", "stein", "ke", "vin", "ba", "con", "phy", "sics",
+            "his", "to", "ry", "ma", "the", "tics", "ro", "man", "em", "pire"};
+
+    private final List<String> titles;
+    private final Map<String, Integer> ids;
+    private final int[][] forward;
+    private final int[][] backward;
+    private final int[][] categories;
+
+    public SyntheticGraph(int numberPages, int degree, int numberCategories, long seed){
+
+        Random random = new Random(seed);
+        titles = new ArrayList<>();
+        ids = new HashMap<>();
+
+        while(titles.size() < numberPages){
+            String title = randomTitle(random) + " " + titles.size();
+            ids.put(title, titles.size());
+            titles.add(title);
+        }
+
+        forward = new int[numberPages][];
+        categories = new int[numberPages][];
+        List<List<Integer>> incoming = new ArrayList<>();
+        for(int page = 0; page < numberPages; page++){
+            incoming.add(new ArrayList<>());
+        }
+
+        for(int page = 0; page < numberPages; page++){
+            int self = page;
+
+            /* preferential attachment-ish: low ids are hubs */
+            forward[page] = random.ints(degree, 0, numberPages)
+                    .map(target -> random.nextBoolean() ? target : target % Math.max(1, numberPages / 20))
+                    .filter(target -> target != self).distinct().toArray();
+
+            for(int target : forward[page]){
+                incoming.get(target).add(page);
+            }
+            categories[page] = random.ints(3, 0, numberCategories).distinct().toArray();
+        }
+
+        backward = new int[numberPages][];
+        for(int page = 0; page < numberPages; page++){
+            backward[page] = incoming.get(page).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public String getTitle(int page){
+        return titles.get(page);
+    }
+
+    public int getNumberPages(){
+        return titles.size();
+    }
+
+    @Override
+    public boolean pageExists(String title){
+        return ids.containsKey(title);
+    }
+
+    @Override
+    public List<String> getLinks(String title, Direction direction, Statistics stats){
+        stats.countRequest();
+
+        List<String> links = new ArrayList<>();
+        Integer page = ids.get(title);
+        if(page != null){
+            for(int target : (direction == Direction.forward ? forward : backward)[page]){
+                links.add(titles.get(target));
+            }
+        }
+        return links;
+    }
+
+    @Override
+    public List<String> getCategories(String title, Statistics stats){
+        stats.countRequest();
+
+        List<String> result = new ArrayList<>();
+        Integer page = ids.get(title);
+        if(page != null){
+            for(int category : categories[page]){
+                result.add("Category:Topic " + category);
+            }
+        }
+        return result;
+    }
+
+    private static String randomTitle(Random random){
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0, syllables = 2 + random.nextInt(4); i < syllables; i++){
+            sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * global title <-> int id mapping shared by all walks. ids are handed out in order, so everything
+ * else (visited sets, parents, categories) can work on plain ints. walks run between enter and leave;
+ * once the dictionary holds more than MAX_TITLES, the next walk waits for the running ones to finish
+ * and starts over with an empty dictionary. whatever keeps ids beyond a walk registers onReset
+ */
+public class TitleDictionary {
+
+    private static final int FREE = -1;
+
+    /* ~4M titles, a few hundred MB with the slots */
+    public static final int MAX_TITLES = 1 << 22;
+
+    /* open addressing on the title's hash, the slots hold ids */
+    private static int[] slots = newSlots(1 << 16);
+    private static volatile String[] titles = new String[1 << 15];
+    private static int size;
+
+    /* walks between enter and leave */
+    private static int active;
+    private static final List<Runnable> resetListeners = new CopyOnWriteArrayList<>();
+
+    private TitleDictionary(){}
+
+    /* a walk starts, waits for a reset first if the dictionary has grown too large */
+    public static synchronized void enter(){
+
+        boolean interrupted = false;
+        while(size > MAX_TITLES && active > 0){
+            try{
+                TitleDictionary.class.wait();
+            }catch(InterruptedException e){
+                interrupted = true;
+            }
+        }
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+        if(size > MAX_TITLES){
+            reset();
+        }
+        active++;
+    }
+
+    /* the walk is over, its ids may be reset from now on */
+    public static synchronized void leave(){
+
+        if(--active == 0){
+            TitleDictionary.class.notifyAll();
+        }
+    }
+
+    /* called (no walk running) when the ids have been handed out anew, to drop everything keyed by them */
+    public static void onReset(Runnable listener){
+        resetListeners.add(listener);
+    }
+
+    /* drops all titles, only while no walk runs */
+    static synchronized void reset(){
+
+        if(active > 0){
+            throw new RuntimeException("ERROR: the title dictionary can't be reset during a walk");
+        }
+        slots = newSlots(1 << 16);
+        titles = new String[1 << 15];
+        size = 0;
+
+        for(Runnable listener : resetListeners){
+            listener.run();
+        }
+    }
+
+    /* id of the title, added if new */
+    public static synchronized int idOf(String title){
+
+        int slot = find(slots, title);
+        if(slots[slot] != FREE){
+            return slots[slot];
+        }
+
+        int id = size++;
+        String[] current = titles;
+        if(id == current.length){
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[id] = title;
+        /* publish after the title is in place, readers don't lock */
+        titles = current;
+        slots[slot] = id;
+
+        /* keep the load factor below 1/2 */
+        if(size * 2 > slots.length){
+            rehash();
+        }
+        return id;
+    }
+
+    /* -1 if the title has no id yet */
+    public static synchronized int lookup(String title){
+        return slots[find(slots, title)];
+    }
+
+    public static String titleOf(int id){
+        return titles[id];
+    }
+
+    public static synchronized int size(){
+        return size;
+    }
+
+    private static void rehash(){
+        int[] larger = newSlots(slots.length * 2);
+
+        for(int id = 0; id < size; id++){
+            larger[find(larger, titles[id])] = id;
+        }
+        slots = larger;
+    }
+
+    private static int find(int[] slots, String title){
+        int mask = slots.length - 1;
+        int slot = IntIntHashMap.mix(title.hashCode()) & mask;
+
+        while(slots[slot] != FREE && !titles[slots[slot]].equals(title)){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int[] newSlots(int capacity){
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, FREE);
+        return slots;
+    }
+}
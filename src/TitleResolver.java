@@ -0,0 +1,96 @@
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/*
+ * canonical titles: normalized the way MediaWiki does it ("albert_einstein" -> "Albert einstein")
+ * and redirects followed ("Einstein" -> "Albert Einstein"). unknown titles are looked up many at
+ * a time, every answer is kept - also those that come along with link lookups for free
+ */
+public class TitleResolver {
+
+    /* known not to exist */
+    private static final String MISSING = "";
+
+    /* normalized title -> canonical title or MISSING */
+    private final Map<String, String> canonical;
+
+    /* normalized titles -> canonical titles of those that exist */
+    private final BiFunction<List<String>, Statistics, CompletableFuture<Map<String, String>>> lookup;
+
+    public TitleResolver(BiFunction<List<String>, Statistics, CompletableFuture<Map<String, String>>> lookup){
+        this.canonical = new ConcurrentHashMap<>();
+        this.lookup = lookup;
+    }
+
+    /* requested title -> canonical title, pages that don't exist are left out */
+    public CompletableFuture<Map<String, String>> resolveAsync(Collection<String> titles, Statistics stats){
+
+        Set<String> unknown = new LinkedHashSet<>();
+        for(String title : titles){
+            if(!canonical.containsKey(normalize(title))){
+                unknown.add(normalize(title));
+            }
+        }
+
+        CompletableFuture<Void> looked = unknown.isEmpty() ? CompletableFuture.completedFuture(null)
+                : lookup.apply(new ArrayList<>(unknown), stats).thenAccept(found -> {
+                    for(String title : unknown){
+                        canonical.put(title, found.getOrDefault(title, MISSING));
+                    }
+                });
+
+        return looked.thenApply(done -> {
+            Map<String, String> resolved = new HashMap<>();
+            for(String title : titles){
+                String known = canonical.getOrDefault(normalize(title), MISSING);
+                if(!known.equals(MISSING)){
+                    resolved.put(title, known);
+                }
+            }
+            return resolved;
+        });
+    }
+
+    /* e.g. a redirect the API followed while answering another query */
+    public void learn(String title, String canonicalTitle){
+        canonical.put(normalize(title), canonicalTitle);
+    }
+
+    /* without a request: the canonical title if it's known already, the title itself otherwise */
+    public String getKnownCanonical(String title){
+        String known = canonical.get(title);
+        return known == null || known.equals(MISSING) ? title : known;
+    }
+
+    public int size(){
+        return canonical.size();
+    }
+
+    /*
+     * underscores are spaces, runs of them count once, none at either end, and the first letter
+     * (also after a namespace like "Category:") is upper case
+     */
+    public static String normalize(String title){
+
+        String normalized = title.replace('_', ' ').trim().replaceAll(" {2,}", " ");
+
+        int colon = normalized.indexOf(':');
+        if(colon > 0 && normalized.substring(0, colon).equalsIgnoreCase("category")){
+            return "Category:" + capitalize(normalized.substring(colon + 1).trim());
+        }
+        return capitalize(normalized);
+    }
+
+    private static String capitalize(String title){
+        if(title.isEmpty()){
+            return title;
+        }
+        int first = title.codePointAt(0);
+        return new StringBuilder(title.length())
+                .appendCodePoint(Character.toUpperCase(first))
+                .append(title, Character.charCount(first), title.length())
+                .toString();
+    }
+}
@@ -0,0 +1,326 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/*
+ * one float vector per title, memory-mapped. vectors are stored with length 1, so the cosine
+ * similarity of two titles is their dot product. pages with similar vectors are (likely) close
+ *
+ * layout of a vector file (little endian):
+ *   header  : magic, version, #vectors, dimension
+ *   vectors : float[#vectors][dimension]
+ *   titles  : UTF-8, one per line, in the order of the vectors
+ *
+ * usage: java VectorStore <graph> [dimension]         FastRP embedding of the offline graph, next to it
+ *        java VectorStore import <text> <vectors>     word2vec / Wikipedia2Vec text format
+ */
+public class VectorStore {
+
+    public static final int MAGIC = 0x31565757; /* "WWV1" */
+    public static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    /* getRow for titles without a vector */
+    public static final int NONE = -1;
+
+    /* FastRP: sums over 1, 2 and 3 links, weighted */
+    private static final float[] HOP_WEIGHTS = {1.0f, 1.0f, 0.5f};
+
+    /* opened once, shared by all walks */
+    private static final Map<Path, VectorStore> OPENED = new ConcurrentHashMap<>();
+
+    private final MappedFile file;
+    private final int numberVectors;
+    private final int dimension;
+
+    /* Main.format(title) -> row */
+    private final Map<String, Integer> rows;
+    /* TitleDictionary id -> row + 1 (0: none), filled while scoring, replaced when the ids are reset */
+    private volatile ConcurrentIntIntMap rowsById;
+    /* a row to compare with, per scoring thread */
+    private final ThreadLocal<float[]> scratch;
+
+    public VectorStore(Path path) throws IOException {
+
+        file = new MappedFile(path);
+
+        if(file.size() < HEADER_SIZE || file.getInt(0) != MAGIC || file.getInt(4) != VERSION){
+            throw new IOException("'" + path + "' is not a wiki-walker vector file");
+        }
+        numberVectors = file.getInt(8);
+        dimension = file.getInt(12);
+
+        rows = new HashMap<>(numberVectors * 2);
+        rowsById = new ConcurrentIntIntMap();
+        TitleDictionary.onReset(() -> rowsById = new ConcurrentIntIntMap());
+        scratch = ThreadLocal.withInitial(() -> new float[dimension]);
+
+        try(InputStream in = new BufferedInputStream(Files.newInputStream(path))){
+            in.skipNBytes(HEADER_SIZE + 4L * numberVectors * dimension);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+            for(int row = 0; row < numberVectors; row++){
+                String title = reader.readLine();
+                if(title == null){
+                    throw new IOException("'" + path + "' misses titles");
+                }
+                rows.putIfAbsent(Main.format(title), row);
+            }
+        }
+    }
+
+    public static VectorStore open(Path path){
+        return OPENED.computeIfAbsent(path.toAbsolutePath().normalize(), absolute -> {
+            try{
+                return new VectorStore(absolute);
+            }catch(IOException e){
+                throw new UncheckedIOException("ERROR: couldn't open the vectors '" + path + "'", e);
+            }
+        });
+    }
+
+    public int getNumberVectors(){
+        return numberVectors;
+    }
+
+    public int getDimension(){
+        return dimension;
+    }
+
+    public int getRow(String title){
+        return rows.getOrDefault(Main.format(title), NONE);
+    }
+
+    /* without allocating once the node's title was looked up */
+    public int getRow(Node node){
+
+        int known = rowsById.get(node.getId());
+        if(known >= 0){
+            return known - 1;
+        }
+        int row = getRow(node.getTitle());
+        rowsById.putIfAbsent(node.getId(), row + 1);
+        return row;
+    }
+
+    public float[] getVector(int row){
+
+        float[] vector = new float[dimension];
+        file.getFloats(HEADER_SIZE + 4L * dimension * row, vector, dimension);
+        return vector;
+    }
+
+    /*
+     * cosine similarity of a vector of length 1 and a row. the row is copied in one go, then summed
+     * up in four independent sums, so that the multiplications don't wait for each other
+     */
+    public double cosine(float[] vector, int row){
+
+        float[] other = scratch.get();
+        file.getFloats(HEADER_SIZE + 4L * dimension * row, other, dimension);
+
+        float sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+
+        int i = 0;
+        for(; i + 4 <= dimension; i += 4){
+            sum0 += vector[i] * other[i];
+            sum1 += vector[i + 1] * other[i + 1];
+            sum2 += vector[i + 2] * other[i + 2];
+            sum3 += vector[i + 3] * other[i + 3];
+        }
+        for(; i < dimension; i++){
+            sum0 += vector[i] * other[i];
+        }
+        return sum0 + sum1 + sum2 + sum3;
+    }
+
+    /*
+     * FastRP (Chen et al.): every page gets a sparse random vector, a page's embedding is the weighted
+     * sum of the averaged random vectors 1, 2 and 3 links away (links and backlinks). pages with many
+     * neighbours in common end up with similar vectors. one array per page: all of them together
+     * easily hold more than 2^31 floats
+     */
+    public static void compute(WikiGraph graph, int dimension, long seed, Path path) throws IOException {
+
+        int numberPages = graph.getNumberPages();
+
+        float[][] random = new float[numberPages][dimension];
+        IntStream.range(0, numberPages).parallel().forEach(id -> {
+            SplittableRandom draws = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + id);
+
+            /* +-sqrt(3) with probability 1/6 each, 0 otherwise */
+            for(int i = 0; i < dimension; i++){
+                int draw = draws.nextInt(6);
+                random[id][i] = draw == 0 ? 1.7320508f : draw == 1 ? -1.7320508f : 0.0f;
+            }
+        });
+
+        float[][] embedding = new float[numberPages][dimension];
+        float[][] hop = random;
+
+        for(float weight : HOP_WEIGHTS){
+            float[][] previous = hop;
+            float[][] next = new float[numberPages][dimension];
+
+            IntStream.range(0, numberPages).parallel().forEach(id -> {
+                float[] sum = next[id];
+                int degree = 0;
+
+                for(Direction direction : Direction.values()){
+                    for(int neighbour : graph.getNeighbours(id, direction)){
+                        float[] other = previous[neighbour];
+                        for(int i = 0; i < dimension; i++){
+                            sum[i] += other[i];
+                        }
+                        degree++;
+                    }
+                }
+                for(int i = 0; degree > 0 && i < dimension; i++){
+                    sum[i] /= degree;
+                }
+            });
+
+            IntStream.range(0, numberPages).parallel().forEach(id -> {
+                normalize(next[id], 0, dimension);
+                for(int i = 0; i < dimension; i++){
+                    embedding[id][i] += weight * next[id][i];
+                }
+            });
+            hop = next;
+        }
+
+        write(path, dimension, numberPages, row -> {
+            normalize(embedding[row], 0, dimension);
+            return embedding[row];
+        }, graph::getTitle);
+    }
+
+    /* "title v1 v2 ..." per line, an optional "#vectors dimension" line first, entities as "ENTITY/Title" */
+    public static void importText(Path text, Path path) throws IOException {
+
+        List<String> titles = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        int dimension = -1;
+
+        try(BufferedReader reader = Files.newBufferedReader(text, StandardCharsets.UTF_8)){
+            String line;
+            while((line = reader.readLine()) != null){
+
+                String[] fields = line.trim().split(" ");
+                if(fields.length < 3){
+                    continue;
+                }
+                if(dimension < 0){
+                    dimension = fields.length - 1;
+                }
+                if(fields.length - 1 != dimension){
+                    throw new IOException("'" + text + "': expected " + dimension + " values, got " + (fields.length - 1));
+                }
+
+                float[] vector = new float[dimension];
+                for(int i = 0; i < dimension; i++){
+                    vector[i] = Float.parseFloat(fields[i + 1]);
+                }
+                normalize(vector, 0, dimension);
+
+                titles.add(fields[0].startsWith("ENTITY/") ? fields[0].substring("ENTITY/".length()) : fields[0]);
+                vectors.add(vector);
+            }
+        }
+        if(dimension < 0){
+            throw new IOException("'" + text + "' holds no vectors");
+        }
+        write(path, dimension, vectors.size(), vectors::get, titles::get);
+    }
+
+    private static void normalize(float[] vectors, int from, int dimension){
+
+        double length = 0;
+        for(int i = from; i < from + dimension; i++){
+            length += vectors[i] * vectors[i];
+        }
+        if(length == 0){
+            return;
+        }
+        float scale = (float) (1.0 / Math.sqrt(length));
+        for(int i = from; i < from + dimension; i++){
+            vectors[i] *= scale;
+        }
+    }
+
+    private static void write(Path path, int dimension, int numberVectors, IntFunction<float[]> vectors, IntFunction<String> titles)
+            throws IOException {
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)){
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(numberVectors).putInt(dimension).flip();
+            write(channel, header);
+
+            ByteBuffer buffer = ByteBuffer.allocate(4 * dimension).order(ByteOrder.LITTLE_ENDIAN);
+            for(int row = 0; row < numberVectors; row++){
+                buffer.clear();
+                buffer.asFloatBuffer().put(vectors.apply(row));
+                write(channel, buffer);
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for(int row = 0; row < numberVectors; row++){
+                sb.append(titles.apply(row).replace('\n', ' ')).append('\n');
+
+                if(sb.length() > (1 << 20) || row == numberVectors - 1){
+                    write(channel, ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+                    sb.setLength(0);
+                }
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        OPENED.remove(path.toAbsolutePath().normalize());
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+    }
+
+    /* next to the graph file */
+    public static Path getPath(Path graphFile){
+        return graphFile.resolveSibling(graphFile.getFileName() + ".vectors");
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        if(args.length >= 3 && args[0].equals("import")){
+            importText(Path.of(args[1]), Path.of(args[2]));
+            VectorStore store = new VectorStore(Path.of(args[2]));
+            System.out.println(store.getNumberVectors() + " vectors (" + store.getDimension() + " dimensions) written to '" + args[2] + "'");
+            return;
+        }
+        if(args.length < 1){
+            System.out.println("usage: VectorStore <graph> [dimension] | VectorStore import <text> <vectors>");
+            return;
+        }
+        Path graphFile = Path.of(args[0]);
+        int dimension = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        long start = System.nanoTime();
+        compute(new WikiGraph(graphFile), dimension, 42, getPath(graphFile));
+
+        System.out.println(String.format(Locale.ROOT, "%d dimensional vectors written to '%s' (%.1f s)",
+                dimension, getPath(graphFile), (System.nanoTime() - start) / 1e9));
+    }
+}
@@ -0,0 +1,55 @@
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+/*
+ * flight recording of one walk: the JDK's "profile" settings plus all wiki-walker events
+ * without threshold. when no recording runs, the events cost next to nothing
+ */
+public class WalkRecording implements AutoCloseable {
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(ExpandEvent.class, CategoriesEvent.class,
+            ParseEvent.class, ScoreEvent.class, FrontierEvent.class);
+
+    private final Recording recording;
+    private final Path file;
+
+    public WalkRecording(Path file) throws IOException {
+
+        Configuration configuration;
+        try{
+            configuration = Configuration.getConfiguration("profile");
+        }catch(ParseException e){
+            throw new IOException(e);
+        }
+
+        this.file = file;
+        this.recording = new Recording(configuration);
+        recording.setName("wiki-walk");
+
+        for(Class<? extends Event> event : EVENTS){
+            recording.enable(event).withoutThreshold();
+        }
+        recording.start();
+    }
+
+    public Path getFile(){
+        return file;
+    }
+
+    /* stops the recording and writes it to the file */
+    @Override
+    public void close() throws IOException {
+        try{
+            recording.stop();
+            recording.dump(file);
+        }finally{
+            recording.close();
+        }
+    }
+}
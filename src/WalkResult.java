@@ -0,0 +1,72 @@
+import java.util.List;
+
+/* outcome of one walk that nobody watched (batch and serve mode) */
+public class WalkResult {
+
+    private final String startPoint, endPoint;
+    private final String status;
+    /* null unless status is "error" */
+    private final String error;
+    private final List<String> path;
+    private final long nanos;
+    private final Statistics stats;
+
+    private WalkResult(String startPoint, String endPoint, String status, String error, List<String> path, long nanos,
+                       Statistics stats){
+        this.startPoint = startPoint;
+        this.endPoint = endPoint;
+        this.status = status;
+        this.error = error;
+        this.path = path;
+        this.nanos = nanos;
+        this.stats = stats;
+    }
+
+    /* status is "found", "dead_end", "time_out" or "error" (e.g. page not found) */
+    public static WalkResult walk(Preferences prefs, LinkSource linkSource, String startPoint, String endPoint){
+
+        Statistics stats = new Statistics();
+        long start = System.nanoTime();
+        String status;
+        String error = null;
+        List<String> path = List.of();
+
+        try{
+            Walker walker = new Walker(prefs, stats, linkSource, startPoint, endPoint, false);
+            path = walker.getPath();
+            status = walker.isFound() ? "found" : walker.hasTimedOut() ? "time_out" : "dead_end";
+        }catch(RuntimeException e){
+            status = "error";
+            error = e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+        return new WalkResult(startPoint, endPoint, status, error, path, System.nanoTime() - start, stats);
+    }
+
+    public String getStatus(){
+        return status;
+    }
+
+    public long getNanos(){
+        return nanos;
+    }
+
+    public String toJson(){
+
+        StringBuilder sb = new StringBuilder("{\"from\":");
+        JsonWriter.quote(sb, startPoint);
+        sb.append(",\"to\":");
+        JsonWriter.quote(sb, endPoint);
+        sb.append(",\"status\":\"").append(status).append("\"");
+        if(error != null){
+            sb.append(",\"error\":");
+            JsonWriter.quote(sb, error);
+        }
+        sb.append(",\"millis\":").append(nanos / 1_000_000).append(",\"path\":[");
+        for(int i = 0; i < path.size(); i++){
+            sb.append(i > 0 ? "," : "");
+            JsonWriter.quote(sb, path.get(i));
+        }
+        sb.append("],\"stats\":").append(stats.toJson()).append("}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,140 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executors;
+
+/*
+ * walking as a service: GET /walk?from=<start>&to=<end>[&<preference>=<value> ...] answers with the
+ * same JSON as a line of the batch results. all walks share one link source, with coalescing on,
+ * so concurrent walks asking for the same title cause one upstream request
+ *
+ * usage: java Main serve [port=8080] [threads=<#walks at a time>] [<preference>=<value> ...]
+ */
+public class WalkServer {
+
+    /* source settings are fixed when the server starts, walks can't change them */
+    private static final Set<String> SOURCE_SETTINGS = Set.of("source", "graph", "api", "record", "cache",
+            "cache_mb", "cache_ttl", "coalesce", "max_rate", "retries", "stats_file", "jfr", "landmarks", "vectors", "path_cache");
+
+    private final Map<String, String> defaults;
+    private final LinkSource linkSource;
+
+    public WalkServer(Map<String, String> defaults, LinkSource linkSource){
+        this.defaults = defaults;
+        this.linkSource = linkSource;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Map<String, String> defaults = new LinkedHashMap<>();
+        /* nobody watches the walks */
+        defaults.put("verbose", "false");
+        defaults.put("coalesce", "true");
+        int port = 8080, threads = 64;
+
+        for(String arg : args){
+            int equals = arg.indexOf('=');
+            if(equals < 0){
+                System.out.println(Main.indentation + "ERROR: expected option=value, got '" + arg + "'");
+                return;
+            }
+            String name = Main.normalize(arg.substring(0, equals));
+            String value = arg.substring(equals + 1);
+
+            if(name.equals("port")){
+                port = Integer.parseInt(value.trim());
+            }else if(name.equals("threads")){
+                threads = Math.max(1, Integer.parseInt(value.trim()));
+            }else{
+                defaults.put(name, value);
+            }
+        }
+
+        Preferences prefs = createPreferences(defaults, Map.of());
+        WalkServer server = new WalkServer(defaults, Main.createLinkSource(prefs));
+
+        HttpServer http = HttpServer.create(new InetSocketAddress(port), 0);
+        http.createContext("/walk", server::handle);
+        /* a walk blocks its thread until it's done */
+        http.setExecutor(Executors.newFixedThreadPool(threads));
+        http.start();
+
+        System.out.println(Main.indentation + "walking on http://localhost:" + port + "/walk?from=...&to=... ("
+                + threads + " walks at a time)");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        try(exchange){
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            String from = params.remove("from"), to = params.remove("to");
+
+            if(from == null || to == null || from.isBlank() || to.isBlank()){
+                respond(exchange, 400, "{\"error\":\"'from' and 'to' are required\"}");
+                return;
+            }
+            for(String name : params.keySet()){
+                if(SOURCE_SETTINGS.contains(name)){
+                    respond(exchange, 400, "{\"error\":" + JsonWriter.quote("'" + name + "' is fixed by the server") + "}");
+                    return;
+                }
+            }
+
+            Preferences prefs;
+            try{
+                prefs = createPreferences(defaults, params);
+            }catch(RuntimeException e){
+                respond(exchange, 400, "{\"error\":" + JsonWriter.quote("invalid preferences " + params) + "}");
+                return;
+            }
+
+            WalkResult result = WalkResult.walk(prefs, linkSource, from.trim(), to.trim());
+            respond(exchange, 200, result.toJson());
+        }
+    }
+
+    private static Preferences createPreferences(Map<String, String> defaults, Map<String, String> overrides){
+
+        Preferences prefs = new Preferences();
+
+        for(Map<String, String> settings : List.of(defaults, overrides)){
+            for(Map.Entry<String, String> entry : settings.entrySet()){
+                prefs.setPref(entry.getKey(), entry.getValue());
+            }
+        }
+        return prefs;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery){
+
+        Map<String, String> params = new LinkedHashMap<>();
+        if(rawQuery == null){
+            return params;
+        }
+        for(String param : rawQuery.split("&")){
+            int equals = param.indexOf('=');
+            if(equals > 0){
+                String name = Main.normalize(URLDecoder.decode(param.substring(0, equals), StandardCharsets.UTF_8));
+                params.put(name, URLDecoder.decode(param.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try(OutputStream out = exchange.getResponseBody()){
+            out.write(bytes);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class Walker {
@@ -13,122 +16,553 @@ public class Walker {
 
     private final Node startNode;
     private final Node endNode;
-    private final Map<Node, Boolean> explored;
 
     private final AtomicBoolean found;
 
-    public Walker(Preferences prefs, Statistics stats, String startPoint, String endPoint){
+    /* routes of earlier walks, null if they aren't reused */
+    private final PathCache pathCache;
+
+    /* from start to end, empty if none was found */
+    private List<String> solution;
+
+    /* path and outcome are printed (the batch mode writes them to a file instead) */
+    private final boolean printing;
+
+    public Walker(Preferences prefs, Statistics stats, LinkSource linkSource, String startPoint, String endPoint){
+        this(prefs, stats, linkSource, startPoint, endPoint, true);
+    }
+
+    public Walker(Preferences prefs, Statistics stats, LinkSource linkSource, String startPoint, String endPoint, boolean printing){
+
+        this.printing = printing;
+        this.solution = new ArrayList<>();
 
 
         /* suitable for multi-threaded search */
         this.found = new AtomicBoolean();
-        explored = new ConcurrentHashMap<>();
-
-        startNode = new Node(startPoint);
-        endNode = new Node(endPoint);
 
         this.prefs = prefs;
         this.stats = stats;
-        this.walkerUtils = new WalkerUtils(prefs, explored, startNode, endNode);
+        stats.reset();
 
-        if(walkerUtils.pageNotFound(startPoint)){
-            throw new RuntimeException("ERROR: page '" + startPoint + "' couldn't be found!");
-        }
-        else if(walkerUtils.pageNotFound(endPoint)){
-            throw new RuntimeException("ERROR: page '" + endPoint + "' couldn't be found!");
-        }
+        /* the title ids of the walk stay valid until leave */
+        TitleDictionary.enter();
+        try{
+            /* one lookup for both: "albert_einstein" or "Einstein" become "Albert Einstein", as links spell it */
+            Map<String, String> canonical = linkSource.resolveAsync(List.of(startPoint, endPoint), stats).join();
+
+            if(!canonical.containsKey(startPoint)){
+                throw new RuntimeException("ERROR: page '" + startPoint + "' couldn't be found!");
+            }
+            else if(!canonical.containsKey(endPoint)){
+                throw new RuntimeException("ERROR: page '" + endPoint + "' couldn't be found!");
+            }
+
+            startNode = new Node(canonical.get(startPoint));
+            endNode = new Node(canonical.get(endPoint));
+
+            this.walkerUtils = new WalkerUtils(prefs, stats, linkSource, startNode, endNode);
+            this.pathCache = prefs.getPathCacheFile().isEmpty() ? null : PathCache.open(Path.of(prefs.getPathCacheFile()));
 
-        if(prefs.mostCategoriesMatchingEnabled()){
-            walkerUtils.setCategoriesTo(endNode);
+            if(prefs.mostCategoriesMatchingEnabled()){
+                walkerUtils.setCategoriesTo(endNode);
 
-            /* when bidirectional, startNode's categories must be also considered */
-            if(prefs.getSearchDirection() == SearchDirection.bi){
-                walkerUtils.setCategoriesTo(startNode);
+                /* when bidirectional, startNode's categories must be also considered */
+                if(prefs.getSearchDirection() != SearchDirection.uni){
+                    walkerUtils.setCategoriesTo(startNode);
+                }
             }
-        }
 
-        walk();
+            walk();
+            stats.finishWalk();
+        }finally{
+            TitleDictionary.leave();
+        }
     }
 
     private void walk (){
-        if(prefs.getSearchDirection() == SearchDirection.uni){
-            unidirectional_walk(Direction.forward);
+
+        List<String> route = getCachedRoute(startNode, Direction.forward);
+
+        /* walked before (or a part of an earlier path) */
+        if(route != null){
+            takeCachedRoute(route, route);
+        }
+        /* both keep their memory bounded by going one way only */
+        else if(prefs.getSearchAlgorithm() == SearchAlgorithm.beam){
+            beam_walk(Direction.forward);
+        }else if(prefs.getSearchAlgorithm() == SearchAlgorithm.idastar){
+            idastar_walk(Direction.forward);
+        }else if(prefs.getSearchAlgorithm() == SearchAlgorithm.parallel_bfs){
+            parallel_bfs_walk();
+        }else if(prefs.getSearchDirection() == SearchDirection.uni){
+            unidirectional_walk(Direction.forward, null);
+        }else if(prefs.getSearchDirection() == SearchDirection.balanced){
+            balanced_walk();
         }else {
             bidirectional_walk();
         }
 
         if(found.get()){
-            walkerUtils.printSolution();
+            /* the bidirectional searches and cached routes don't use Node parents, they have set the solution already */
+            if(solution.isEmpty()){
+                Stack<String> path = walkerUtils.getSolution();
+                while(!path.isEmpty()){
+                    solution.add(path.pop());
+                }
+            }
+            stats.setPathLength(solution.size());
+
+            /* a wrong way round path would turn into wrong routes for later walks */
+            if(pathCache != null && runsFromStartToEnd(solution)){
+                pathCache.add(solution);
+            }
+
+            if(printing){
+                walkerUtils.printPath(solution);
+            }
         }
-        stats.setNumberOfRequests(walkerUtils.getNumberRequests());
     }
 
-    private void unidirectional_walk(Direction direction){
+    /* search: shared by both threads of a bidirectional walk, null otherwise */
+    private void unidirectional_walk(Direction direction, BidirectionalSearch search){
 
-        Queue<Node> queue = null;
+        Queue<Node> queue = createQueue();
         /* depend on the direction */
         Node startNode = walkerUtils.getStartNodeFrom(direction);
         Node endNode = walkerUtils.getEndNodeFrom(direction);
 
-        if(prefs.getSearchAlgorithm() == SearchAlgorithm.bfs){
-            queue = new LinkedList<>();
-        }else if(prefs.getSearchAlgorithm() == SearchAlgorithm.gbfs){
+        offer(queue, startNode, direction);
 
-            queue = new PriorityQueue<>(walkerUtils.getCostComparator());
-        }
+        /* finished expansions arrive here, only this thread touches the queue */
+        BlockingQueue<List<Node>> completed = new LinkedBlockingQueue<>();
+        int inFlight = 0;
 
-        queue.add(startNode);
+        while((!queue.isEmpty() || inFlight > 0) && !found.get()){
 
-        while(!queue.isEmpty() && !found.get() && !walkerUtils.maxRequestsReached()){
+            /* keep up to 'concurrency' batches of the best nodes in flight */
+            while(inFlight < prefs.getConcurrency() && !queue.isEmpty() && !walkerUtils.budgetExhausted()){
 
-            Node current = queue.poll();
-            explored.put(current, true);
+                /* A*: the cheapest node is the goal - once no expansion is pending, nothing is cheaper */
+                if(walkerUtils.testsGoalOnPoll() && queue.peek().equals(endNode)){
+                    if(inFlight > 0){
+                        break;
+                    }
+                    endNode.setParentId(poll(queue, direction).getParentId());
+                    stats.recordMeet();
+                    found.set(true);
+                    return;
+                }
 
-            if(prefs.isVerbose()){
-                System.out.println(Main.indentation + "\\" + current);
+                List<Node> batch = pollBatch(queue, direction);
+                if(batch.isEmpty()){
+                    continue;
+                }
+                stats.countExpanded(batch.size());
+                stats.recordExplored(walkerUtils.getNumberExplored());
+
+                walkerUtils.expandAtAsync(batch, direction)
+                        .exceptionally(e -> new ArrayList<>())
+                        .thenAccept(completed::add);
+                inFlight++;
+            }
+            if(inFlight == 0){
+                break;
             }
 
-            List<Node> expandedNodes = walkerUtils.expandAt(current, direction);
+            List<Node> expandedNodes;
+            try {
+                expandedNodes = completed.take();
+                inFlight--;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
 
             for(Node expanded : expandedNodes){
 
-                if(explored.get(expanded) != null){
-                    /* already explored - from the other side of bidirectional search ? */
-                    Direction counterPart = direction.getCounterPart();
-
-                    if(expanded.getDirection() == counterPart){
-                        found.set(true);
-                        return;
+                /* reached by the other side (its root is this side's goal) */
+                if(search != null && search.visit(expanded.getId(), expanded.getParentId(), direction) && search.hasMet()){
+                    if(found.compareAndSet(false, true)){
+                        solution = search.getPath();
+                        stats.recordMeet();
                     }
+                    return;
                 }
-                /* goal test */
-                else if(expanded.equals(endNode)){
-                    expanded.setParent(current);
-                    endNode.setParent(current);
+                if(walkerUtils.getExplored(direction).contains(expanded)){
+                    continue;
+                }
+                /* goal test (A*: when polled) */
+                else if(expanded.equals(endNode) && !walkerUtils.testsGoalOnPoll()){
+                    endNode.setParentId(expanded.getParentId());
+                    stats.recordMeet();
                     found.set(true);
                     return;
                 }
-                /* neither explored nor goal - add */
+                /* neither explored nor goal - add, unless an earlier walk went on from there */
                 else{
-                    expanded.setParent(current);
-                    queue.add(expanded);
+                    List<String> route = getCachedRoute(expanded, direction);
+
+                    if(route != null && takeCachedRoute(join(walkerUtils.getPathTo(expanded), route, direction), route)){
+                        return;
+                    }
+                    offer(queue, expanded, direction);
                 }
             }
+            stats.recordFrontier(queue.size());
         }
         if(!found.get()){
             if(queue.isEmpty()){
-                System.out.println(Main.indentation + "[DEAD END]");
+                report("[DEAD END]");
             }
-            else if(walkerUtils.maxRequestsReached()){
-                System.out.println(Main.indentation + "[TIME OUT]");
+            else if(walkerUtils.budgetExhausted()){
+                report("[TIME OUT]");
             }
         }
     }
 
+    /*
+     * beam search: layer by layer, only the beam_width best children of a layer make it into the
+     * next one. the frontier never holds more than beam_width nodes (plus the layer in expansion)
+     */
+    private void beam_walk(Direction direction){
+
+        Node startNode = walkerUtils.getStartNodeFrom(direction);
+        Node endNode = walkerUtils.getEndNodeFrom(direction);
+
+        List<Node> layer = List.of(startNode);
+
+        while(!layer.isEmpty() && !walkerUtils.budgetExhausted()){
+
+            /* best first */
+            Queue<Node> frontier = new LinkedList<>(layer);
+            Beam beam = new Beam(prefs.getBeamWidth(), walkerUtils.getCostComparator());
+
+            BlockingQueue<List<Node>> completed = new LinkedBlockingQueue<>();
+            int inFlight = 0;
+
+            while(!frontier.isEmpty() || inFlight > 0){
+
+                while(inFlight < prefs.getConcurrency() && !frontier.isEmpty() && !walkerUtils.budgetExhausted()){
+
+                    List<Node> batch = pollBatch(frontier, direction);
+                    if(batch.isEmpty()){
+                        continue;
+                    }
+                    stats.countExpanded(batch.size());
+                    stats.recordExplored(walkerUtils.getNumberExplored());
+
+                    walkerUtils.expandAtAsync(batch, direction)
+                            .exceptionally(e -> new ArrayList<>())
+                            .thenAccept(completed::add);
+                    inFlight++;
+                }
+                if(inFlight == 0){
+                    break;
+                }
+
+                List<Node> expandedNodes;
+                try {
+                    expandedNodes = completed.take();
+                    inFlight--;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                for(Node expanded : expandedNodes){
+
+                    /* goal test */
+                    if(expanded.equals(endNode)){
+                        endNode.setParentId(expanded.getParentId());
+                        stats.recordMeet();
+                        found.set(true);
+                        return;
+                    }
+                    if(!walkerUtils.getExplored(direction).contains(expanded)){
+                        List<String> route = getCachedRoute(expanded, direction);
+
+                        if(route != null && takeCachedRoute(join(walkerUtils.getPathTo(expanded), route, direction), route)){
+                            return;
+                        }
+                        beam.offer(expanded);
+                    }
+                }
+                stats.recordFrontier(frontier.size() + beam.size());
+            }
+            stats.countPruned(beam.getDropped());
+            layer = beam.toList();
+        }
+
+        report(layer.isEmpty() ? "[DEAD END]" : "[TIME OUT]");
+    }
+
+    /*
+     * IDA*: depth-first as long as depth + lower bound (landmarks of the offline graph, 0 otherwise,
+     * which makes it iterative deepening) stays within the bound, which is raised to the smallest
+     * value beyond it after every round. only the path and the children along it are held,
+     * the rounds repeat lookups (which the cache answers)
+     */
+    private void idastar_walk(Direction direction){
+
+        Node startNode = walkerUtils.getStartNodeFrom(direction);
+        double bound = walkerUtils.getLowerBound(startNode, direction);
+
+        LinkedList<Node> path = new LinkedList<>(List.of(startNode));
+
+        while(bound != Double.POSITIVE_INFINITY && !walkerUtils.budgetExhausted()){
+
+            bound = deepen(path, bound, direction);
+
+            if(found.get()){
+                return;
+            }
+        }
+
+        report(bound == Double.POSITIVE_INFINITY ? "[DEAD END]" : "[TIME OUT]");
+    }
+
+    /* the smallest depth + lower bound beyond the bound below the end of the path, infinite if there is none */
+    private double deepen(LinkedList<Node> path, double bound, Direction direction){
+
+        Node current = path.getLast();
+        Node endNode = walkerUtils.getEndNodeFrom(direction);
+
+        if(walkerUtils.budgetExhausted()){
+            return bound;
+        }
+        if(prefs.isVerbose()){
+            System.out.println(Main.indentation + "\\" + current);
+        }
+
+        List<Node> children;
+        try{
+            stats.countExpanded(1);
+            children = new ArrayList<>(walkerUtils.expandAt(current, direction));
+        }catch(RuntimeException e){
+            children = new ArrayList<>();
+        }
+        children.sort(walkerUtils.getCostComparator());
+
+        double next = Double.POSITIVE_INFINITY;
+
+        for(Node child : children){
+
+            /* goal test */
+            if(child.equals(endNode)){
+                for(Node node : path){
+                    solution.add(node.getTitle());
+                }
+                solution.add(endNode.getTitle());
+                stats.recordMeet();
+                found.set(true);
+                return bound;
+            }
+            if(path.contains(child)){
+                continue;
+            }
+
+            double estimate = child.getDepth() + walkerUtils.getLowerBound(child, direction);
+            if(estimate > bound){
+                next = Math.min(next, estimate);
+                continue;
+            }
+
+            path.addLast(child);
+            stats.recordExplored(path.size());
+            next = Math.min(next, deepen(path, bound, direction));
+            path.removeLast();
+
+            if(found.get() || walkerUtils.budgetExhausted()){
+                return bound;
+            }
+        }
+        return next;
+    }
+
+    /* on all cores, straight on the offline graph: no lookups, so neither max_req nor max_links apply */
+    private void parallel_bfs_walk(){
+
+        GraphLinkSource source = walkerUtils.getGraphLinkSource();
+        WikiGraph graph = source.getGraph();
+        ParallelBfs bfs = source.acquireSearch();
+
+        try{
+            int[] path = bfs.search(graph.getId(startNode.getTitle()), graph.getId(endNode.getTitle()),
+                    source.getPool(prefs.getBfsThreads()), stats, prefs.isVerbose());
+
+            if(path == null){
+                report("[DEAD END]");
+                return;
+            }
+            for(int id : path){
+                solution.add(graph.getTitle(id));
+            }
+            stats.recordMeet();
+            found.set(true);
+        }finally{
+            source.releaseSearch(bfs);
+        }
+    }
+
+    private void report(String outcome){
+        if(printing){
+            System.out.println(Main.indentation + outcome);
+        }
+    }
+
+    public boolean isFound(){
+        return found.get();
+    }
+
+    /* not found because max_req or max_bytes was reached */
+    public boolean hasTimedOut(){
+        return !found.get() && walkerUtils.budgetExhausted();
+    }
+
+    public List<String> getPath(){
+        return solution;
+    }
+
+    /*
+     * a route of an earlier walk from the node to the goal (forward) or from the start to the node
+     * (backward), null if there is none. only the searches without a promise of a shortest path use them
+     */
+    private List<String> getCachedRoute(Node node, Direction direction){
+
+        SearchAlgorithm algorithm = prefs.getSearchAlgorithm();
+        if(pathCache == null || (algorithm != SearchAlgorithm.gbfs && algorithm != SearchAlgorithm.beam)){
+            return null;
+        }
+        return direction == Direction.forward ? pathCache.getRouteTo(node.getId(), endNode.getId())
+                : pathCache.getRouteFrom(startNode.getId(), node.getId());
+    }
+
+    private boolean runsFromStartToEnd(List<String> path){
+
+        if(path.size() < 2 || TitleDictionary.lookup(path.get(0)) != startNode.getId()
+                || TitleDictionary.lookup(path.get(path.size() - 1)) != endNode.getId()){
+            report("ERROR: path " + path + " doesn't run from '" + startNode.getTitle()
+                    + "' to '" + endNode.getTitle() + "', not added to the path cache");
+            return false;
+        }
+        return true;
+    }
+
+    /* the path from the root of the direction to the node and the node's route, from start to end */
+    private static List<String> join(List<String> pathToNode, List<String> route, Direction direction){
+
+        List<String> joined = new ArrayList<>();
+
+        if(direction == Direction.forward){
+            joined.addAll(pathToNode);
+            joined.addAll(route.subList(1, route.size()));
+        }else{
+            joined.addAll(route);
+            for(int i = pathToNode.size() - 2; i >= 0; i--){
+                joined.add(pathToNode.get(i));
+            }
+        }
+        return PathCache.withoutDetours(joined);
+    }
+
+    /* false if the walk was over already (the other thread of a bidirectional walk) */
+    private boolean takeCachedRoute(List<String> path, List<String> route){
+
+        if(!found.compareAndSet(false, true)){
+            return false;
+        }
+        solution = path;
+        stats.setReusedLinks(route.size() - 1);
+        stats.recordMeet();
+        return true;
+    }
+
+    /* both reject pages queued before, so that no page sits in the frontier twice */
+    private Queue<Node> createQueue(){
+
+        if(prefs.getSearchAlgorithm() == SearchAlgorithm.bfs){
+            return new FifoFrontier();
+        }
+        return new IndexedHeap(walkerUtils.getCostComparator());
+    }
+
+    /* the best few nodes are expanded together, one request for all of them */
+    private List<Node> pollBatch(Queue<Node> queue, Direction direction){
+
+        List<Node> batch = new ArrayList<>();
+
+        while(!queue.isEmpty() && batch.size() < prefs.getBatchSize()){
+
+            /* A*: the goal is polled on its own, see unidirectional_walk */
+            if(walkerUtils.testsGoalOnPoll() && queue.peek().equals(walkerUtils.getEndNodeFrom(direction))){
+                break;
+            }
+            Node current = poll(queue, direction);
+
+            /* explored by now, e.g. from a frontier that keeps duplicates */
+            if(!walkerUtils.getExplored(direction).add(current)){
+                stats.countStalePoll();
+                continue;
+            }
+            batch.add(current);
+
+            if(prefs.isVerbose()){
+                System.out.println(Main.indentation + "\\" + current);
+            }
+        }
+        return batch;
+    }
+
+    /* every frontier operation goes through these two, so that it shows up in flight recordings */
+
+    private void offer(Queue<Node> frontier, Node node, Direction direction){
+
+        FrontierEvent event = new FrontierEvent();
+        event.begin();
+        boolean added = frontier.offer(node);
+        event.end();
+
+        if(!added){
+            stats.countDuplicateRejected();
+        }
+
+        if(event.shouldCommit()){
+            commit(event, "offer", node, direction, frontier.size());
+        }
+    }
+
+    private Node poll(Queue<Node> frontier, Direction direction){
+
+        FrontierEvent event = new FrontierEvent();
+        event.begin();
+        Node node = frontier.poll();
+        event.end();
+
+        if(event.shouldCommit()){
+            commit(event, "poll", node, direction, frontier.size());
+        }
+        return node;
+    }
+
+    private static void commit(FrontierEvent event, String operation, Node node, Direction direction, int frontierSize){
+        event.operation = operation;
+        event.title = node == null ? null : node.getTitle();
+        event.direction = direction.name();
+        event.frontierSize = frontierSize;
+        event.commit();
+    }
+
+    /*
+     * one thread per direction. both mark their children in a shared BidirectionalSearch, which
+     * detects the meet and splices the path from start to end
+     */
     private void bidirectional_walk(){
-        // TODO: implement as backward chaining
-        Thread forward_search = new Thread(() -> unidirectional_walk(Direction.forward));
-        Thread backward_search = new Thread(() -> unidirectional_walk(Direction.backward));
+
+        BidirectionalSearch search = new BidirectionalSearch(startNode.getId(), endNode.getId());
+
+        Thread forward_search = new Thread(() -> unidirectional_walk(Direction.forward, search));
+        Thread backward_search = new Thread(() -> unidirectional_walk(Direction.backward, search));
 
         forward_search.start();
         backward_search.start();
@@ -140,4 +574,137 @@ public class Walker {
             e.printStackTrace();
         }
     }
+
+    /*
+     * one frontier per direction, the smaller one is expanded next so that both sides get
+     * about the same number of requests. finished expansions mark their children in the
+     * shared BidirectionalSearch right away (on the http threads), which detects the meet
+     */
+    private void balanced_walk(){
+
+        BidirectionalSearch search = new BidirectionalSearch(startNode.getId(), endNode.getId());
+
+        Map<Direction, Queue<Node>> frontiers = new EnumMap<>(Direction.class);
+        frontiers.put(Direction.forward, createQueue());
+        frontiers.put(Direction.backward, createQueue());
+        offer(frontiers.get(Direction.forward), startNode, Direction.forward);
+        offer(frontiers.get(Direction.backward), endNode, Direction.backward);
+
+        BlockingQueue<Expansion> completed = new LinkedBlockingQueue<>();
+        int inFlight = 0;
+
+        /* start to end over a route of an earlier walk, set on the http threads */
+        AtomicReference<List<String>> joined = new AtomicReference<>();
+
+        while(!search.hasMet() && joined.get() == null){
+
+            while(inFlight < prefs.getConcurrency() && !walkerUtils.budgetExhausted()){
+
+                Direction direction = getSmallerFrontier(frontiers);
+                if(direction == null){
+                    break;
+                }
+
+                Queue<Node> frontier = frontiers.get(direction);
+                List<Node> batch = new ArrayList<>();
+
+                while(!frontier.isEmpty() && batch.size() < prefs.getBatchSize()){
+                    Node current = poll(frontier, direction);
+                    batch.add(current);
+
+                    if(prefs.isVerbose()){
+                        System.out.println(Main.indentation + (direction == Direction.forward ? "\\" : "/") + current);
+                    }
+                }
+
+                stats.countExpanded(batch.size());
+
+                walkerUtils.expandAtAsync(batch, direction)
+                        .exceptionally(e -> new ArrayList<>())
+                        .thenAccept(expandedNodes -> {
+
+                            List<Node> fresh = new ArrayList<>();
+                            for(Node expanded : expandedNodes){
+                                if(search.visit(expanded.getId(), expanded.getParentId(), direction)){
+                                    fresh.add(expanded);
+
+                                    List<String> route = getCachedRoute(expanded, direction);
+                                    if(route != null && joined.compareAndSet(null,
+                                            join(search.getPathTo(expanded.getId(), direction), route, direction))){
+                                        stats.setReusedLinks(route.size() - 1);
+                                        stats.recordMeet();
+                                    }
+                                }
+                            }
+                            if(search.hasMet()){
+                                stats.recordMeet();
+                            }
+                            completed.add(new Expansion(direction, fresh));
+                        });
+                inFlight++;
+            }
+            if(inFlight == 0 || search.hasMet() || joined.get() != null){
+                break;
+            }
+
+            Expansion expansion;
+            try {
+                expansion = completed.take();
+                inFlight--;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            for(Node node : expansion.nodes){
+                offer(frontiers.get(expansion.direction), node, expansion.direction);
+            }
+
+            stats.recordFrontier(frontiers.get(Direction.forward).size() + frontiers.get(Direction.backward).size());
+            stats.recordExplored(search.getNumberVisited(Direction.forward) + search.getNumberVisited(Direction.backward));
+        }
+
+        if(joined.get() != null){
+            solution = joined.get();
+            found.set(true);
+        }
+        else if(search.hasMet()){
+            solution = search.getPath();
+            found.set(true);
+        }
+        else if(frontiers.get(Direction.forward).isEmpty() || frontiers.get(Direction.backward).isEmpty()){
+            report("[DEAD END]");
+        }
+        else if(walkerUtils.budgetExhausted()){
+            report("[TIME OUT]");
+        }
+    }
+
+    /* null if both are empty */
+    private Direction getSmallerFrontier(Map<Direction, Queue<Node>> frontiers){
+
+        int forwardSize = frontiers.get(Direction.forward).size();
+        int backwardSize = frontiers.get(Direction.backward).size();
+
+        if(forwardSize == 0 && backwardSize == 0){
+            return null;
+        }
+        if(forwardSize == 0){
+            return Direction.backward;
+        }
+        if(backwardSize == 0){
+            return Direction.forward;
+        }
+        return forwardSize <= backwardSize ? Direction.forward : Direction.backward;
+    }
+
+    private static class Expansion {
+
+        private final Direction direction;
+        private final List<Node> nodes;
+
+        private Expansion(Direction direction, List<Node> nodes){
+            this.direction = direction;
+            this.nodes = nodes;
+        }
+    }
 }
@@ -1,93 +1,165 @@
-import org.json.JSONObject;
-
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class WalkerUtils {
 
-    private final HttpClient client;
+    private final LinkSource linkSource;
     private final Preferences prefs;
+    private final Statistics stats;
     private final Node startNode, endNode;
 
     private final Random random;
-    private final AtomicInteger numberOfRequests;
 
-    private final Map<Node, Boolean> explored;
+    /* the heuristics, compiled once per walk for the goal of each direction */
+    private final List<HeuristicScorer> forwardScorers, backwardScorers;
+
+    /* one per direction: a page the other side explored is where both sides meet, not a duplicate */
+    private final ExploredSet forwardExplored, backwardExplored;
+
+    /* ids looked up so far per direction, a second lookup of the same page is wasted */
+    private final ConcurrentIntIntMap forwardLookups, backwardLookups;
+
+    /* null unless the source is the offline graph */
+    private final WikiGraph graph;
+    /* astar (and idastar offline): lower bounds of the offline graph, goals as graph ids */
+    private final Landmarks landmarks;
+    private final int forwardGoalId, backwardGoalId;
 
     public Set<String> spamMarkers;
 
-    public WalkerUtils(Preferences prefs, Map<Node, Boolean> explored, Node startNode, Node endNode){
+    public WalkerUtils(Preferences prefs, Statistics stats, LinkSource linkSource, Node startNode, Node endNode){
 
-        this.client = HttpClient.newHttpClient();
-        this.random = new Random(System.currentTimeMillis());
-        this.numberOfRequests = new AtomicInteger();
+        this.linkSource = linkSource;
+        /* a fixed seed makes walks repeatable (given the same responses) */
+        this.random = new Random(prefs.getSeed() != 0 ? prefs.getSeed() : System.currentTimeMillis());
 
         this.prefs = prefs;
-        this.explored = explored;
+        this.stats = stats;
+        this.forwardExplored = new ExploredSet();
+        this.backwardExplored = new ExploredSet();
+        this.forwardLookups = new ConcurrentIntIntMap();
+        this.backwardLookups = new ConcurrentIntIntMap();
         this.startNode = startNode;
         this.endNode = endNode;
 
+        this.forwardScorers = compileScorers(endNode);
+        this.backwardScorers = compileScorers(startNode);
+
+        SearchAlgorithm algorithm = prefs.getSearchAlgorithm();
+        this.graph = linkSource instanceof GraphLinkSource ? ((GraphLinkSource) linkSource).getGraph() : null;
+
+        if(graph == null && (algorithm == SearchAlgorithm.astar || algorithm == SearchAlgorithm.parallel_bfs)){
+            throw new RuntimeException("ERROR: " + algorithm + " needs the offline graph (set source to offline)");
+        }
+
+        if(graph != null && (algorithm == SearchAlgorithm.astar || algorithm == SearchAlgorithm.idastar)){
+            try{
+                this.landmarks = ((GraphLinkSource) linkSource).getLandmarks(prefs.getLandmarks());
+            }catch(IOException e){
+                throw new UncheckedIOException("ERROR: couldn't compute the landmarks of '" + prefs.getGraphFile() + "'", e);
+            }
+            this.forwardGoalId = graph.getId(endNode.getTitle());
+            this.backwardGoalId = graph.getId(startNode.getTitle());
+        }else{
+            this.landmarks = null;
+            this.forwardGoalId = this.backwardGoalId = -1;
+        }
+
         spamMarkers = new HashSet<>(List.of("identifiers", "clean up", "all", "articles", "video", "description", "redirects", "pages", "wiki"));
     }
 
-    public boolean pageNotFound(String title){
-
-        title = Main.format(title);
+    /* max_req requests made or max_bytes received, one hub page can cost more than many small ones */
+    public boolean budgetExhausted(){
+        return stats.getNumberOfRequests() >= prefs.getMaxReq() || stats.getBytesReceived() >= prefs.getMaxBytes();
+    }
 
-        /* "HEAD" reduces data being sent from the server */
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://en.wikipedia.org/wiki/" + title))
-                .method("HEAD", HttpRequest.BodyPublishers.noBody())
-                .build();
+    /*
+     * A* keeps every link and tests for the goal when it is polled, not when it shows up:
+     * only then no cheaper path can be left in the frontier
+     */
+    public boolean testsGoalOnPoll(){
+        return prefs.getSearchAlgorithm() == SearchAlgorithm.astar;
+    }
 
-        HttpResponse<Void> response;
+    public ExploredSet getExplored(Direction direction){
+        return direction == Direction.backward ? backwardExplored : forwardExplored;
+    }
 
-        try{
-            response = client.send(request, HttpResponse.BodyHandlers.discarding());
-        } catch(IOException | InterruptedException e){
-            return true;
-        }
+    /* of both directions */
+    public int getNumberExplored(){
+        return forwardExplored.size() + backwardExplored.size();
+    }
 
-        return response.statusCode() != 200;
+    public WikiGraph getGraph(){
+        return graph;
     }
 
-    public boolean maxRequestsReached(){
-        return numberOfRequests.get() >= prefs.getMaxReq();
+    /* null unless the walk runs on the offline graph */
+    public GraphLinkSource getGraphLinkSource(){
+        return graph != null ? (GraphLinkSource) linkSource : null;
     }
 
     public int getNumberRequests(){
-        return numberOfRequests.get();
+        return stats.getNumberOfRequests();
     }
 
+    /* the start on top, whichever direction reached its goal */
     public Stack<String> getSolution(){
         /* where to begin*/
-        Node pointedTo = this.endNode.getParent() != null ? this.endNode : this.startNode;
+        Node pointedTo = this.endNode.hasParent() ? this.endNode : this.startNode;
+        ExploredSet explored = getExplored(pointedTo == this.endNode ? Direction.forward : Direction.backward);
+        List<String> titles = new ArrayList<>();
+
+        /* the parents of everything but the goal are kept in the explored set */
+        titles.add(pointedTo.getTitle());
+        for(int id = pointedTo.getParentId(); id != ExploredSet.NO_PARENT; id = explored.getParentId(id)){
+            titles.add(TitleDictionary.titleOf(id));
+        }
+        /* traced back from the end or (a backward walk) forward from the start */
+        if(pointedTo == this.startNode){
+            Collections.reverse(titles);
+        }
         Stack<String> path = new Stack<>();
+        path.addAll(titles);
+        return path;
+    }
+
+    /* titles from the root of the node's direction to the node, the parents are explored */
+    public List<String> getPathTo(Node node){
 
-        while(pointedTo.getParent() != null){
+        ExploredSet explored = getExplored(node.getDirection());
+        List<String> path = new ArrayList<>();
+        path.add(node.getTitle());
 
-            path.push(pointedTo.getTitle());
-            pointedTo = pointedTo.getParent();
+        for(int id = node.getParentId(); id != ExploredSet.NO_PARENT; id = explored.getParentId(id)){
+            path.add(TitleDictionary.titleOf(id));
         }
-        path.push(pointedTo.getTitle());
+        Collections.reverse(path);
         return path;
     }
 
     public void printSolution(){
 
         Stack<String> solution = getSolution();
-        StringBuilder sb = new StringBuilder();
+        List<String> path = new ArrayList<>();
 
         while(!solution.isEmpty()){
-            sb.append(Main.indentation + solution.pop());
+            path.add(solution.pop());
+        }
+        printPath(path);
+    }
 
-            if(!solution.isEmpty()){
+    public void printPath(List<String> path){
+
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; i < path.size(); i++){
+            sb.append(Main.indentation + path.get(i));
+
+            if(i < path.size() - 1){
                 sb.append(" > \n");
             }
         }
@@ -95,209 +167,341 @@ public class WalkerUtils {
     }
 
     public List<Node> expandAt(Node node, Direction direction){
+        return expandAt(List.of(node), direction);
+    }
 
-        List<Node> expandedNodes = new ArrayList<Node>();
-        String prop = direction == Direction.forward ? "links" : "linkshere";
-
-        HttpResponse response = null;
-        try {
+    /* children of all given nodes (parents set), links and categories are fetched batch-wise */
+    public List<Node> expandAt(List<Node> nodes, Direction direction){
+        return expandAtAsync(nodes, direction).join();
+    }
 
-            HttpRequest request = HttpRequest.newBuilder(
-                    URI.create("https://en.wikipedia.org/w/api.php?action=query&titles="
-                            + node.getURLTitle() + "&format=json&prop=" + prop + "&pllimit=max"))
-                    .header("accept", "application/json")
-                    .build();
+    /*
+     * completes once links, categories and costs of all children are known. links are looked at
+     * while they arrive: the goal ends the lookup right away, everything else is sampled (A*: all
+     * links are kept, the goal is a child like any other)
+     */
+    public CompletableFuture<List<Node>> expandAtAsync(List<Node> nodes, Direction direction){
 
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            numberOfRequests.incrementAndGet();
+        ExpandEvent event = new ExpandEvent();
+        event.begin();
 
-        } catch (InterruptedException | IOException | RuntimeException e) {
-            /* return an empty list != null */
-            return expandedNodes;
+        ConcurrentIntIntMap lookups = direction == Direction.forward ? forwardLookups : backwardLookups;
+        for(Node node : nodes){
+            if(!lookups.putIfAbsent(node.getId(), 0)){
+                stats.countWastedLookup();
+            }
         }
 
-        List<Object> links = getLinksFromResponse(response, direction);
+        List<String> titles = nodes.stream().map(Node::getTitle).collect(Collectors.toList());
+        ChildSampler sampler = new ChildSampler(nodes, getEndNodeFrom(direction).getTitle(), getExplored(direction), !testsGoalOnPoll());
 
-        if(links == null){
-            return expandedNodes;
+        return linkSource.streamLinksAsync(titles, direction, stats, sampler)
+                .thenCompose(complete -> {
+
+                    sampler.resolveRedirects();
+
+                    /* goal reached - neither categories nor costs needed */
+                    if(sampler.goalFound){
+                        Node goal = new Node(getEndNodeFrom(direction).getId());
+                        goal.setParentId(sampler.goalParentId);
+                        goal.setDirection(direction);
+                        return CompletableFuture.completedFuture(List.of(goal));
+                    }
+
+                    List<Node> expandedNodes = sampler.getChildren(direction);
+
+                    if(!prefs.mostCategoriesMatchingEnabled()){
+                        return CompletableFuture.completedFuture(expandedNodes);
+                    }
+                    return setCategoriesToAsync(expandedNodes).thenApply(done -> expandedNodes);
+                })
+                .thenApply(expandedNodes -> {
+                    List<Node> scoredNodes = new ArrayList<>();
+
+                    for(Node expandedNode : expandedNodes){
+                        assignCostsTo(expandedNode, direction);
+
+                        /* the landmarks proved that the goal can't be reached from there */
+                        if(landmarks == null || expandedNode.getCost() != Double.POSITIVE_INFINITY){
+                            scoredNodes.add(expandedNode);
+                        }
+                    }
+                    return scoredNodes;
+                })
+                .whenComplete((expandedNodes, e) -> {
+                    event.end();
+                    if(event.shouldCommit()){
+                        event.titles = String.join("|", titles);
+                        event.direction = direction.name();
+                        event.batchSize = nodes.size();
+                        event.children = expandedNodes == null ? 0 : expandedNodes.size();
+                        event.commit();
+                    }
+                });
+    }
+
+    /*
+     * keeps a uniform random sample of max_links links per node (reservoir sampling), so that
+     * no link list has to be held in full. stops the lookup when the goal shows up. without
+     * sampling (A*) every link is kept and the lookup runs to the end
+     */
+    private class ChildSampler implements LinkConsumer {
+
+        private final Map<String, Node> nodesByTitle;
+        private final Map<String, String[]> samples;
+        private final Map<String, Integer> seen;
+        private final String goalTitle;
+        /* of the direction of the lookup */
+        private final ExploredSet explored;
+        private final boolean sampling;
+
+        private boolean goalFound;
+        private int goalParentId;
+
+        private ChildSampler(List<Node> nodes, String goalTitle, ExploredSet explored, boolean sampling){
+            this.nodesByTitle = new HashMap<>();
+            this.samples = new HashMap<>();
+            this.seen = new HashMap<>();
+            this.goalTitle = goalTitle;
+            this.explored = explored;
+            this.sampling = sampling;
+
+            for(Node node : nodes){
+                nodesByTitle.put(node.getTitle(), node);
+            }
         }
 
-        for (int i = 0; i < links.size(); i++){
+        /* chunks of one lookup may arrive on different threads */
+        @Override
+        public synchronized boolean accept(String from, String to){
+
+            Node parent = nodesByTitle.get(from);
+            if(parent == null || goalFound){
+                return !goalFound;
+            }
+
+            /* goal test, also through redirects that are known already */
+            if(sampling && (to.equals(goalTitle) || linkSource.getKnownCanonical(to).equals(goalTitle))){
+                goalFound = true;
+                goalParentId = parent.getId();
+                return false;
+            }
+
+            String[] sample = samples.computeIfAbsent(from, key -> new String[prefs.getMaxLinks()]);
+            int count = seen.merge(from, 1, Integer::sum);
 
-            HashMap<String, Object> map = (HashMap<String, Object>) (links.get(i));
+            if(!sampling && count > sample.length){
+                sample = Arrays.copyOf(sample, sample.length * 2);
+                samples.put(from, sample);
+            }
 
-            if(map.get("ns") == (Integer) 0) {
-                String title = (String) map.get("title");
+            if(count <= sample.length){
+                sample[count - 1] = to;
+            }else{
+                int index = random.nextInt(count);
+                if(index < sample.length){
+                    sample[index] = to;
+                }
+            }
+            return true;
+        }
+
+        /*
+         * the lookup has shown which of the expanded pages are redirects: one to the goal reaches
+         * it, one to an explored page only brings duplicates, otherwise its target counts as explored
+         */
+        private synchronized void resolveRedirects(){
 
-                Node expandedNode = new Node(title);
+            for(Node node : nodesByTitle.values()){
 
-                /* already seen - no further need to expand */
-                if(explored.containsKey(expandedNode)){
+                String canonical = linkSource.getKnownCanonical(node.getTitle());
+                if(goalFound || canonical.equals(node.getTitle())){
                     continue;
                 }
 
-                /* new value - go on */
-                expandedNode.setParent(node);
-                expandedNode.setDirection(direction);
+                if(sampling && canonical.equals(goalTitle) && node.hasParent()){
+                    goalFound = true;
+                    goalParentId = node.getParentId();
+                    return;
+                }
 
-                if(prefs.mostCategoriesMatchingEnabled()){
+                Node target = new Node(canonical);
+                target.setParentId(node.getParentId());
 
-                    setCategoriesTo(expandedNode);
+                if(!explored.add(target)){
+                    samples.remove(node.getTitle());
                 }
-                assignCostsTo(expandedNode, direction);
-                expandedNodes.add(expandedNode);
             }
         }
-        return expandedNodes;
-    }
 
-    public void setCategoriesTo(Node node){
+        private synchronized List<Node> getChildren(Direction direction){
 
-        HttpResponse response = null;
-        try {
-            /* asking for ALL categories not that more expensive, keep most valuable */
-            HttpRequest request = HttpRequest.newBuilder(
-                    URI.create("https://en.wikipedia.org/w/api.php?action=query&titles="
-                            + node.getURLTitle() + "&format=json&prop=categories&cllimit=max"))
-                    .header("accept", "application/json")
-                    .build();
-
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            numberOfRequests.incrementAndGet();
-
-        } catch (InterruptedException | IOException | RuntimeException e) {
-            /* something went totally wrong */
-            return;
-        }
+            List<Node> expandedNodes = new ArrayList<Node>();
+
+            for(Map.Entry<String, String[]> entry : samples.entrySet()){
+                for(String title : entry.getValue()){
+
+                    if(title == null){
+                        continue;
+                    }
+                    /* redirects seen before become their target right away */
+                    Node expandedNode = new Node(linkSource.getKnownCanonical(title));
 
-        JSONObject req = new JSONObject(response.body().toString());
-        JSONObject query = req.getJSONObject("query");
-        JSONObject pages = query.getJSONObject("pages");
-        JSONObject page = pages.getJSONObject(pages.keys().next());
+                    /* already seen - no further need to expand */
+                    if(explored.contains(expandedNode)){
+                        continue;
+                    }
 
-        /* page not found ? */
-        if(!page.has("categories")){
-            return;
+                    /* new value - go on */
+                    expandedNode.setParent(nodesByTitle.get(entry.getKey()));
+                    expandedNode.setDirection(direction);
+                    expandedNodes.add(expandedNode);
+                }
+            }
+            return expandedNodes;
         }
-        List<Object> categories = page.getJSONArray("categories").toList();
+    }
 
-        /* shuffle to not always get the alphabetical order*/
-        Collections.shuffle(categories, random);
+    public void setCategoriesTo(Node node){
+        setCategoriesTo(List.of(node));
+    }
 
-        /* filter out non-categories and generic categories e.g. category: article with video */
-        Set<String> categoryObjects =   categories.stream()
-                .map(obj -> (HashMap<String, Object>) obj)
-                .filter(obj -> obj.get("ns") == (Integer)14)
-                .filter(obj -> {
-                    String title = ((String)obj.get("title")).toLowerCase();
+    /* one lookup for all nodes instead of one per node */
+    public void setCategoriesTo(List<Node> nodes){
+        setCategoriesToAsync(nodes).join();
+    }
 
-                    for(String marker : spamMarkers){
-                        if(title.contains(marker))
-                            return false;
+    /*
+     * every (non-generic) category goes into the node's MinHash sketch, together with the
+     * ancestors of up to max_categories of them (see category_depth)
+     */
+    public CompletableFuture<Void> setCategoriesToAsync(List<Node> nodes){
+
+        CategoriesEvent event = new CategoriesEvent();
+        event.begin();
+
+        Set<String> titles = nodes.stream().map(Node::getTitle).collect(Collectors.toSet());
+        int depth = prefs.getCategoryDepth();
+
+        /* a failed lookup leaves the nodes without categories, not the walk without children */
+        return linkSource.getCategoriesAsync(titles, stats)
+                .exceptionally(e -> new HashMap<>())
+                .thenCompose(categoriesByTitle -> {
+
+                    Set<Integer> followed = setCategoriesTo(nodes, categoriesByTitle);
+                    return CategoryHierarchy.resolve(followed, depth, linkSource, stats, this::isRelevantCategory);
+                })
+                .thenAccept(done -> {
+                    for(Node node : nodes){
+                        node.setCategorySketch(MinHash.sketch(CategoryHierarchy.withAncestors(node.getCategories(), depth)));
                     }
-                    return true;
-                }).map(obj -> ((String)obj.get("title"))).limit(prefs.getMaxCategories()).collect(Collectors.toSet());
-
-        // add categories all at ones
-        node.setCategories(categoryObjects);
+                })
+                .whenComplete((done, e) -> {
+                    event.end();
+                    if(event.shouldCommit()){
+                        /* the start and end node have no direction */
+                        Direction direction = nodes.isEmpty() ? null : nodes.get(0).getDirection();
+
+                        event.titles = String.join("|", titles);
+                        event.direction = direction == null ? null : direction.name();
+                        event.batchSize = nodes.size();
+                        event.commit();
+                    }
+                });
     }
 
-    /* forward and backward responses have to be parsed differently */
+    /* returns the categories whose parents are worth looking up */
+    private Set<Integer> setCategoriesTo(List<Node> nodes, Map<String, List<String>> categoriesByTitle){
 
-    private List<Object> getLinksFromResponse(HttpResponse response, Direction direction){
+        Set<Integer> followed = new HashSet<>();
 
-        /* list of HashMaps<String, Object> */
-        List<Object> links = null;
+        for(Node node : nodes){
 
-        if(direction == Direction.forward){
-            JSONObject req = new JSONObject(response.body().toString());
-            JSONObject query = req.getJSONObject("query");
-            JSONObject pages = query.getJSONObject("pages");
-            JSONObject page = pages.getJSONObject(pages.keys().next());
+            /* shuffle to not always get the alphabetical order*/
+            List<String> categories = new ArrayList<>(categoriesByTitle.getOrDefault(node.getTitle(), List.of()));
+            Collections.shuffle(categories, random);
 
-            /* page not found ? */
-            if(!page.has("links")){
-                return links;
-            }
+            /* filter out generic categories e.g. category: article with video */
+            List<Integer> categoryIds = categories.stream()
+                    .filter(this::isRelevantCategory)
+                    .map(TitleDictionary::idOf).collect(Collectors.toList());
 
-            links = page.getJSONArray("links").toList();
-        }
+            followed.addAll(categoryIds.subList(0, Math.min(categoryIds.size(), prefs.getMaxCategories())));
 
-        else{
-            JSONObject req = new JSONObject(response.body().toString());
-            JSONObject query = req.getJSONObject("query");
-            JSONObject pages = query.getJSONObject("pages");
-            JSONObject page = pages.getJSONObject(pages.keys().next());
+            // add categories all at ones
+            node.setCategories(categoryIds.stream().mapToInt(Integer::intValue).sorted().distinct().toArray());
+        }
+        return followed;
+    }
 
-            /* page not found ? */
-            if(!page.has("linkshere")){
-                return links;
-            }
+    private boolean isRelevantCategory(String title){
+        title = title.toLowerCase();
 
-            links = page.getJSONArray("linkshere").toList();
+        for(String marker : spamMarkers){
+            if(title.contains(marker))
+                return false;
         }
-        /* shuffle to not always get the alphabetical order, use seed to ensure reproducible behaviour */
-        Collections.shuffle(links, random);
-        int linksPresent = Math.min(links.size(), prefs.getMaxLinks());
-        links  = links.subList(0, linksPresent);
-
-        return links;
+        return true;
     }
 
     public void assignCostsTo(Node node, Direction direction){
 
-        double cost = 0.0;
-        double hits = 0.0;
+        ScoreEvent event = new ScoreEvent();
+        event.begin();
 
-        // TODO: optimize the heuristic and the cost function
-        if(prefs.longestSubstringEnabled()){
-            hits +=  getLongestSubstring(node, getEndNodeFrom(direction));
-        }
+        if(landmarks != null){
+            /* A*: links so far plus a lower bound of the links still needed */
+            node.setCost(node.getDepth() + getLowerBound(node, direction));
+        }else{
+            double hits = 0.0;
 
-        if(prefs.mostCategoriesMatchingEnabled()){
+            // TODO: optimize the heuristic and the cost function
+            for(HeuristicScorer scorer : getScorers(direction)){
+                hits += scorer.score(node);
+            }
 
-            hits += getNumberCategoriesMatching(node, getEndNodeFrom(direction));
+            node.setCost(1000.0 / (hits * hits));
         }
 
-        if(prefs.hammingEnabled()){
-
-            /* prefer small hamming distance */
-            int hammingDistance = getHammingDistance(node, getEndNodeFrom(direction));
-            hits += (1.0 / hammingDistance);
+        event.end();
+        if(event.shouldCommit()){
+            event.title = node.getTitle();
+            event.direction = direction.name();
+            event.cost = node.getCost();
+            event.commit();
         }
-
-        node.setCost(1000.0 / (hits * hits));
     }
 
-    public int getNumberCategoriesMatching(Node node, Node goalNode){
-        int num = 0;
+    /*
+     * links from the node to the goal (forward) or from the start to the node (backward), infinite if
+     * there's no path. 0 without landmarks
+     */
+    public double getLowerBound(Node node, Direction direction){
 
-        for(String goalCategory : goalNode.getCategories()){
-            if(node.getCategories().contains(goalCategory)){
-                num++;
-            }
+        if(landmarks == null){
+            return 0.0;
         }
-        return num;
+        int id = graph.getId(node.getTitle());
+        int bound = direction == Direction.forward ? landmarks.lowerBound(id, forwardGoalId) : landmarks.lowerBound(backwardGoalId, id);
+
+        return bound == Landmarks.NO_PATH ? Double.POSITIVE_INFINITY : bound;
     }
 
-    public int getHammingDistance(Node node, Node goalNode){
+    /* compiled for the goal of the direction */
+    public List<HeuristicScorer> getScorers(Direction direction){
+        return direction == Direction.forward ? forwardScorers : backwardScorers;
+    }
 
-        String nodeTitle = node.getCanonicalTitle();
-        String goalTitle = goalNode.getCanonicalTitle();
+    private List<HeuristicScorer> compileScorers(Node goalNode){
 
-        int compareLength = Math.min(nodeTitle.length(), goalTitle.length());
-        int lengthDifference = Math.max(nodeTitle.length(), goalTitle.length()) - compareLength;
+        List<HeuristicScorer> scorers = new ArrayList<>();
 
-        int hammingDistance = 0;
-        for(int i = 0; i < compareLength; i++){
-            hammingDistance += nodeTitle.charAt(i) != goalTitle.charAt(i) ? 1 : 0;
+        for(Heuristic heuristic : Heuristic.values()){
+            if(prefs.isEnabled(heuristic)){
+                scorers.add(heuristic.createScorer(goalNode, prefs));
+            }
         }
-        return hammingDistance + lengthDifference;
-    }
-
-    public int getLongestSubstring(Node node, Node goalNode){
-
-        return longestSubstr(node.getCanonicalTitle(), goalNode.getCanonicalTitle());
+        return scorers;
     }
 
     public Node getStartNodeFrom(Direction direction){
@@ -312,37 +516,11 @@ public class WalkerUtils {
         return new Comparator<Node>() {
             @Override
             public int compare(Node o1, Node o2) {
-                return Double.compare(o1.getCost(), o2.getCost());
-            }
-        };
-    }
-
-    /* COPIED FROM WIKIBOOKS - minimize number of calls to this function */
-    private int longestSubstr(String first, String second) {
-        if (first == null || second == null || first.length() == 0 || second.length() == 0) {
-            return 0;
-        }
-
-        int maxLen = 0;
-        int fl = first.length();
-        int sl = second.length();
-        int[][] table = new int[fl][sl];
+                int cmp = Double.compare(o1.getCost(), o2.getCost());
 
-        for (int i = 0; i < fl; i++) {
-            for (int j = 0; j < sl; j++) {
-                if (first.charAt(i) == second.charAt(j)) {
-                    if (i == 0 || j == 0) {
-                        table[i][j] = 1;
-                    }
-                    else {
-                        table[i][j] = table[i - 1][j - 1] + 1;
-                    }
-                    if (table[i][j] > maxLen) {
-                        maxLen = table[i][j];
-                    }
-                }
+                /* on a tie the deeper node is closer to the goal (A*) */
+                return cmp != 0 ? cmp : Integer.compare(o2.getDepth(), o1.getDepth());
             }
-        }
-        return maxLen;
+        };
     }
 }
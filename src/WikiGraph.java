@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/*
+ * read side of the offline link graph written by GraphImporter
+ *
+ * layout (little endian, every section 8 byte aligned):
+ *   header       : magic, version, #pages, #categories, positions of the five sections
+ *   page titles  : long[#pages + 1] offsets, utf-8 titles sorted bytewise (id = rank)
+ *   categories   : long[#categories + 1] offsets, utf-8 category names sorted bytewise
+ *   forward      : long[#pages + 1] offsets, int[] target ids   (CSR, prop=links)
+ *   backward     : long[#pages + 1] offsets, int[] source ids   (CSR, prop=linkshere)
+ *   page -> cat  : long[#pages + 1] offsets, int[] category ids (CSR, prop=categories)
+ *
+ * titles are stored the way the dumps spell them, i.e. with underscores
+ */
+public class WikiGraph {
+
+    public static final int MAGIC = 0x31475757; /* "WWG1" */
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+
+    private final MappedFile file;
+
+    private final int numberPages;
+    private final int numberCategories;
+
+    private final long pageTitles, categoryTitles;
+    private final long forward, backward, pageCategories;
+
+    public WikiGraph(Path path) throws IOException {
+
+        file = new MappedFile(path);
+
+        if(file.size() < HEADER_SIZE || file.getInt(0) != MAGIC || file.getInt(4) != VERSION){
+            throw new IOException("'" + path + "' is not a wiki-walker graph file");
+        }
+
+        numberPages = file.getInt(8);
+        numberCategories = file.getInt(12);
+
+        pageTitles = file.getLong(16);
+        categoryTitles = file.getLong(24);
+        forward = file.getLong(32);
+        backward = file.getLong(40);
+        pageCategories = file.getLong(48);
+    }
+
+    public int getNumberPages(){
+        return numberPages;
+    }
+
+    public int getNumberCategories(){
+        return numberCategories;
+    }
+
+    /* -1 if the page is not part of the graph */
+    public int getId(String title){
+        return find(pageTitles, numberPages, Main.format(title).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getTitle(int id){
+        return readString(pageTitles, numberPages, id).replace('_', ' ');
+    }
+
+    public String getCategoryTitle(int categoryId){
+        return "Category:" + readString(categoryTitles, numberCategories, categoryId).replace('_', ' ');
+    }
+
+    public int getDegree(int id, Direction direction){
+        long section = direction == Direction.forward ? forward : backward;
+        return (int) (file.getLong(section + 8L * (id + 1)) - file.getLong(section + 8L * id));
+    }
+
+    /* of all pages */
+    public long getNumberLinks(){
+        return file.getLong(forward + 8L * numberPages);
+    }
+
+    /*
+     * without allocating: the links of a page are getLink(i) for getFirstLink(id) <= i < getFirstLink(id + 1)
+     */
+    public long getFirstLink(int id, Direction direction){
+        return file.getLong((direction == Direction.forward ? forward : backward) + 8L * id);
+    }
+
+    public int getLink(long index, Direction direction){
+        long section = direction == Direction.forward ? forward : backward;
+        return file.getInt(section + 8L * (numberPages + 1) + 4L * index);
+    }
+
+    public int[] getNeighbours(int id, Direction direction){
+        return readAdjacency(direction == Direction.forward ? forward : backward, id);
+    }
+
+    public int[] getCategories(int id){
+        return readAdjacency(pageCategories, id);
+    }
+
+    private int[] readAdjacency(long section, int id){
+
+        long from = file.getLong(section + 8L * id);
+        long to = file.getLong(section + 8L * (id + 1));
+        long edges = section + 8L * (numberPages + 1);
+
+        int[] adjacent = new int[(int) (to - from)];
+        for(int i = 0; i < adjacent.length; i++){
+            adjacent[i] = file.getInt(edges + 4L * (from + i));
+        }
+        return adjacent;
+    }
+
+    private String readString(long section, int count, int index){
+
+        long from = file.getLong(section + 8L * index);
+        long to = file.getLong(section + 8L * (index + 1));
+        long blob = section + 8L * (count + 1);
+
+        return new String(file.getBytes(blob + from, (int) (to - from)), StandardCharsets.UTF_8);
+    }
+
+    /* binary search without materializing the stored titles */
+    private int find(long section, int count, byte[] key){
+
+        long blob = section + 8L * (count + 1);
+        int low = 0;
+        int high = count - 1;
+
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+
+            long from = file.getLong(section + 8L * mid);
+            long to = file.getLong(section + 8L * (mid + 1));
+            int cmp = compare(blob + from, (int) (to - from), key);
+
+            if(cmp < 0){
+                low = mid + 1;
+            }else if(cmp > 0){
+                high = mid - 1;
+            }else{
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compare(long position, int length, byte[] key){
+
+        int compareLength = Math.min(length, key.length);
+
+        for(int i = 0; i < compareLength; i++){
+            int cmp = Integer.compare(file.getByte(position + i) & 0xff, key[i] & 0xff);
+            if(cmp != 0){
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+}
@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiResponseDecoderTest {
+
+    private static final String FIRST_PAGE = "{\"batchcomplete\":\"\",\"continue\":{\"plcontinue\":\"736|0|Physics\",\"continue\":\"||\"},"
+            + "\"query\":{\"pages\":{\"736\":{\"pageid\":736,\"ns\":0,\"title\":\"Albert Einstein\",\"links\":["
+            + "{\"ns\":0,\"title\":\"Kevin Bacon\"},{\"ns\":14,\"title\":\"Category:Physicists\"},{\"ns\":0,\"title\":\"Max Born\"}]}}}}";
+    private static final String SECOND_PAGE = "{\"query\":{\"pages\":{\"736\":{\"pageid\":736,\"ns\":0,\"title\":\"Albert Einstein\","
+            + "\"links\":[{\"ns\":0,\"title\":\"Physics\"}]}}}}";
+
+    private static final String REDIRECTS = "{\"query\":{"
+            + "\"normalized\":[{\"fromencoded\":false,\"from\":\"einstein\",\"to\":\"Einstein\"}],"
+            + "\"redirects\":[{\"from\":\"Einstein\",\"to\":\"Albert Einstein\"},{\"from\":\"UK\",\"to\":\"United Kingdom\"},"
+            + "{\"from\":\"Britain\",\"to\":\"United Kingdom\"}],"
+            + "\"pages\":{\"736\":{\"pageid\":736,\"ns\":0,\"title\":\"Albert Einstein\",\"links\":[{\"ns\":0,\"title\":\"Physics\"}]},"
+            + "\"31717\":{\"pageid\":31717,\"ns\":0,\"title\":\"United Kingdom\",\"links\":[{\"ns\":0,\"title\":\"London\"}]},"
+            + "\"-1\":{\"ns\":0,\"title\":\"No Such Page\",\"missing\":\"\"}}}}";
+
+    private static Map<String, String> decode(String body, ApiResponseDecoder decoder) throws IOException {
+        return decoder.decode(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static LinkConsumer collectingInto(Map<String, List<String>> links){
+        return (from, to) -> {
+            links.computeIfAbsent(from, key -> new ArrayList<>()).add(to);
+            return true;
+        };
+    }
+
+    @Test
+    public void continuationsAreMerged() throws IOException {
+
+        Map<String, List<String>> links = new HashMap<>();
+
+        Map<String, String> next = decode(FIRST_PAGE, new ApiResponseDecoder("links", 0, collectingInto(links)));
+        assertEquals(Map.of("plcontinue", "736|0|Physics", "continue", "||"), next);
+
+        next = decode(SECOND_PAGE, new ApiResponseDecoder("links", 0, collectingInto(links)));
+        assertTrue(next.isEmpty());
+
+        /* the category of namespace 14 is left out */
+        assertEquals(Map.of("Albert Einstein", List.of("Kevin Bacon", "Max Born", "Physics")), links);
+    }
+
+    @Test
+    public void normalizedAndRedirectedTitlesMapBackToEveryRequest() throws IOException {
+
+        Map<String, List<String>> links = new HashMap<>();
+        ApiResponseDecoder decoder = new ApiResponseDecoder("links", 0,
+                List.of("einstein", "Einstein", "UK", "Britain", "United Kingdom", "No Such Page"), collectingInto(links));
+
+        decode(REDIRECTS, decoder);
+
+        assertEquals(List.of("Physics"), links.get("einstein"));
+        assertEquals(List.of("Physics"), links.get("Einstein"));
+        assertEquals(List.of("London"), links.get("UK"));
+        assertEquals(List.of("London"), links.get("Britain"));
+        assertEquals(List.of("London"), links.get("United Kingdom"));
+        assertEquals(5, links.size());
+
+        assertEquals(Map.of("einstein", "Albert Einstein", "Einstein", "Albert Einstein", "UK", "United Kingdom",
+                "Britain", "United Kingdom", "United Kingdom", "United Kingdom"), decoder.getResolved());
+    }
+
+    @Test
+    public void redirectsToOneTargetKeepAllRequestsWithoutTheRequestedTitles() throws IOException {
+
+        Map<String, List<String>> links = new HashMap<>();
+        ApiResponseDecoder decoder = new ApiResponseDecoder("links", 0, collectingInto(links));
+
+        decode(REDIRECTS, decoder);
+
+        assertEquals(Map.of("einstein", List.of("Physics"), "UK", List.of("London"), "Britain", List.of("London")), links);
+        assertFalse(decoder.getResolved().containsKey("No Such Page"));
+    }
+
+    @Test
+    public void stopsEarly() throws IOException {
+
+        List<String> accepted = new ArrayList<>();
+        ApiResponseDecoder decoder = new ApiResponseDecoder("links", 0, (from, to) -> {
+            accepted.add(to);
+            return accepted.size() < 2;
+        });
+
+        /* no continuation once the consumer had enough */
+        assertTrue(decode(FIRST_PAGE, decoder).isEmpty());
+        assertEquals(List.of("Kevin Bacon", "Max Born"), accepted);
+    }
+
+    @Test
+    public void stopsEarlyAcrossRequesters() throws IOException {
+
+        List<String> accepted = new ArrayList<>();
+        ApiResponseDecoder decoder = new ApiResponseDecoder("links", 0, List.of("UK", "Britain"), (from, to) -> {
+            accepted.add(from);
+            return false;
+        });
+
+        decode(REDIRECTS, decoder);
+        assertEquals(1, accepted.size());
+    }
+}
@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FifoFrontierTest {
+
+    @Test
+    public void pollsInOfferOrder(){
+
+        FifoFrontier frontier = new FifoFrontier();
+        for(int id : new int[]{5, 3, 8, 1}){
+            assertTrue(frontier.offer(new Node(id)));
+        }
+
+        assertEquals(4, frontier.size());
+        assertEquals(5, frontier.peek().getId());
+
+        List<Integer> order = new ArrayList<>();
+        while(!frontier.isEmpty()){
+            order.add(frontier.poll().getId());
+        }
+        assertEquals(List.of(5, 3, 8, 1), order);
+        assertNull(frontier.poll());
+    }
+
+    @Test
+    public void queuesEveryPageOnce(){
+
+        FifoFrontier frontier = new FifoFrontier();
+        assertTrue(frontier.offer(new Node(1)));
+        assertTrue(frontier.offer(new Node(2)));
+        assertFalse(frontier.offer(new Node(1)));
+        assertEquals(2, frontier.size());
+
+        /* polled pages stay rejected as well */
+        assertEquals(1, frontier.poll().getId());
+        assertFalse(frontier.offer(new Node(1)));
+        assertEquals(1, frontier.size());
+    }
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* imports the dumps under test/fixtures and reads the graph back */
+public class GraphImporterTest {
+
+    private static final Path FIXTURES = Path.of("test", "fixtures");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void readsColumnsAndTuples() throws IOException {
+
+        SqlDumpReader reader = new SqlDumpReader(FIXTURES.resolve("page.sql"));
+        assertEquals(List.of("page_id", "page_namespace", "page_title", "page_is_redirect", "page_is_new", "page_random",
+                "page_touched", "page_links_updated", "page_latest", "page_len", "page_content_model", "page_lang"),
+                reader.readColumns());
+
+        List<List<String>> tuples = new ArrayList<>();
+        reader.forEachTuple(tuples::add);
+
+        assertEquals(6, tuples.size());
+        assertEquals("Albert_Einstein", tuples.get(0).get(2));
+        assertNull(tuples.get(2).get(7));
+        assertEquals("Schrödinger's_cat", tuples.get(5).get(2));
+    }
+
+    @Test
+    public void readsDumpsWithoutHeader() throws IOException {
+
+        Path dump = directory.resolve("dump.sql");
+        Files.writeString(dump, "INSERT INTO `page` VALUES (1,0,'A'),(2,0,'B');\n");
+
+        SqlDumpReader reader = new SqlDumpReader(dump);
+        assertTrue(reader.readColumns().isEmpty());
+
+        List<List<String>> tuples = new ArrayList<>();
+        reader.forEachTuple(tuples::add);
+        assertEquals(List.of(List.of("1", "0", "A"), List.of("2", "0", "B")), tuples);
+    }
+
+    @Test
+    public void importsLinkTargets() throws IOException {
+
+        GraphImporter importer = new GraphImporter();
+        importer.readPages(FIXTURES.resolve("page.sql"));
+        importer.readLinkTargets(FIXTURES.resolve("linktarget.sql"));
+        importer.readPageLinks(FIXTURES.resolve("pagelinks.sql"));
+        importer.readCategoryLinks(FIXTURES.resolve("categorylinks.sql"));
+
+        assertGraph(write(importer));
+    }
+
+    @Test
+    public void importsLegacySchema() throws IOException {
+
+        GraphImporter importer = new GraphImporter();
+        importer.readPages(FIXTURES.resolve("page.sql"));
+        importer.readPageLinks(FIXTURES.resolve("pagelinks_legacy.sql"));
+        importer.readCategoryLinks(FIXTURES.resolve("categorylinks_legacy.sql"));
+
+        assertGraph(write(importer));
+    }
+
+    @Test
+    public void rejectsLinkTargetIdsWithoutLinkTargets() throws IOException {
+
+        GraphImporter importer = new GraphImporter();
+        importer.readPages(FIXTURES.resolve("page.sql"));
+
+        IOException e = assertThrows(IOException.class, () -> importer.readPageLinks(FIXTURES.resolve("pagelinks.sql")));
+        assertTrue(e.getMessage().contains("linktarget"));
+    }
+
+    @Test
+    public void rejectsUnknownSchema() throws IOException {
+
+        Path dump = directory.resolve("pagelinks.sql");
+        Files.writeString(dump, "CREATE TABLE `pagelinks` (\n  `pl_from` int(8) NOT NULL,\n  `pl_to_page` int(8) NOT NULL\n);\n"
+                + "INSERT INTO `pagelinks` VALUES (1,2);\n");
+
+        GraphImporter importer = new GraphImporter();
+        importer.readPages(FIXTURES.resolve("page.sql"));
+
+        IOException e = assertThrows(IOException.class, () -> importer.readPageLinks(dump));
+        assertTrue(e.getMessage().contains("unknown pagelinks schema"));
+    }
+
+    private WikiGraph write(GraphImporter importer) throws IOException {
+
+        Path path = directory.resolve("test.graph");
+        importer.write(path);
+        return new WikiGraph(path);
+    }
+
+    /* talk pages, category pages, missing targets and self links are left out */
+    private static void assertGraph(WikiGraph graph){
+
+        assertEquals(4, graph.getNumberPages());
+        assertEquals(2, graph.getNumberCategories());
+        assertEquals(4, graph.getNumberLinks());
+
+        int einstein = graph.getId("Albert Einstein");
+        int bacon = graph.getId("Kevin Bacon");
+        int physics = graph.getId("Physics");
+        int cat = graph.getId("Schrödinger's cat");
+
+        assertEquals("Albert Einstein", graph.getTitle(einstein));
+        assertEquals("Schrödinger's cat", graph.getTitle(cat));
+
+        assertArrayEquals(sorted(bacon, physics), graph.getNeighbours(einstein, Direction.forward));
+        assertArrayEquals(new int[]{physics}, graph.getNeighbours(bacon, Direction.forward));
+        assertArrayEquals(new int[]{cat}, graph.getNeighbours(physics, Direction.forward));
+        assertArrayEquals(sorted(einstein, bacon), graph.getNeighbours(physics, Direction.backward));
+        assertArrayEquals(new int[0], graph.getNeighbours(cat, Direction.forward));
+
+        assertEquals("Category:Physicists", graph.getCategoryTitle(graph.getCategories(einstein)[0]));
+        assertEquals("Category:Actors", graph.getCategoryTitle(graph.getCategories(bacon)[0]));
+        assertEquals(0, graph.getCategories(physics).length);
+    }
+
+    private static int[] sorted(int... ids){
+        Arrays.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* the parallel_bfs searches and pools a GraphLinkSource holds for its walks */
+public class GraphLinkSourceTest {
+
+    private static final Path FIXTURES = Path.of("test", "fixtures");
+
+    @TempDir
+    Path directory;
+
+    private GraphLinkSource createSource() throws IOException {
+
+        GraphImporter importer = new GraphImporter();
+        importer.readPages(FIXTURES.resolve("page.sql"));
+        importer.readLinkTargets(FIXTURES.resolve("linktarget.sql"));
+        importer.readPageLinks(FIXTURES.resolve("pagelinks.sql"));
+        importer.readCategoryLinks(FIXTURES.resolve("categorylinks.sql"));
+
+        Path path = directory.resolve("test.graph");
+        importer.write(path);
+        return new GraphLinkSource(path);
+    }
+
+    @Test
+    public void reusesSearchesAndPools() throws IOException {
+
+        GraphLinkSource source = createSource();
+
+        ParallelBfs search = source.acquireSearch();
+        assertNotSame(search, source.acquireSearch());
+        source.releaseSearch(search);
+        assertSame(search, source.acquireSearch());
+
+        assertSame(source.getPool(2), source.getPool(2));
+        assertSame(ForkJoinPool.commonPool(), source.getPool(0));
+        source.close();
+    }
+
+    @Test
+    public void closeShutsThePoolsDown() throws IOException {
+
+        GraphLinkSource source = createSource();
+        ParallelBfs search = source.acquireSearch();
+        source.releaseSearch(search);
+        ForkJoinPool pool = source.getPool(2);
+
+        source.close();
+
+        assertTrue(pool.isShutdown());
+        assertNotSame(search, source.acquireSearch());
+        assertNotSame(pool, source.getPool(2));
+        source.close();
+    }
+
+    @Test
+    public void parallelBfsWalk() throws IOException {
+
+        GraphLinkSource source = createSource();
+        Preferences prefs = new Preferences();
+        prefs.setPref("verbose", "false");
+        prefs.setPref("search", "parallel_bfs");
+        prefs.setPref("bfs_threads", "2");
+
+        Walker walker = new Walker(prefs, new Statistics(), source, "Albert Einstein", "Schrödinger's cat", false);
+        assertTrue(walker.isFound());
+        assertEquals(List.of("Albert Einstein", "Physics", "Schrödinger's cat"), walker.getPath());
+        source.close();
+    }
+}
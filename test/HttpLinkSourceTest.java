@@ -0,0 +1,115 @@
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* lookups against a local server whose second page of links fails (or not) */
+public class HttpLinkSourceTest {
+
+    private static final String FIRST_PAGE = "{\"continue\":{\"plcontinue\":\"1|0|C\",\"continue\":\"||\"},"
+            + "\"query\":{\"pages\":{\"1\":{\"pageid\":1,\"ns\":0,\"title\":\"A\",\"links\":[{\"ns\":0,\"title\":\"B\"}]}}}}";
+    private static final String SECOND_PAGE = "{\"query\":{\"pages\":{\"1\":{\"pageid\":1,\"ns\":0,\"title\":\"A\","
+            + "\"links\":[{\"ns\":0,\"title\":\"C\"}]}}}}";
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile boolean failing;
+
+    @BeforeEach
+    public void start() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/w/api.php", exchange -> {
+            requests.incrementAndGet();
+            boolean second = exchange.getRequestURI().getRawQuery().contains("plcontinue=");
+
+            byte[] body = (second ? SECOND_PAGE : FIRST_PAGE).getBytes(StandardCharsets.UTF_8);
+            int status = second && failing ? 500 : 200;
+
+            exchange.getResponseHeaders().set("content-type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try(OutputStream out = exchange.getResponseBody()){
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stop(){
+        server.stop(0);
+    }
+
+    private HttpLinkSource createSource(){
+        return new HttpLinkSource("http://localhost:" + server.getAddress().getPort(), null, 200, 0);
+    }
+
+    private CachingLinkSource createCachingSource() throws IOException {
+        return new CachingLinkSource(createSource(), new MemoryCache(1 << 20), new DiskCache(directory, 3600_000L));
+    }
+
+    @Test
+    public void followsContinuation(){
+
+        Map<String, List<String>> links = createSource().getLinks(List.of("A"), Direction.forward, new Statistics());
+        assertEquals(List.of("B", "C"), links.get("A"));
+    }
+
+    @Test
+    public void streamWithFailedPageIsIncomplete(){
+
+        failing = true;
+        List<String> links = new ArrayList<>();
+
+        boolean complete = createSource().streamLinksAsync(List.of("A"), Direction.forward, new Statistics(),
+                (from, to) -> links.add(to)).join();
+
+        /* what arrived is handed out, but the stream doesn't claim to be complete */
+        assertFalse(complete);
+        assertEquals(List.of("B"), links);
+    }
+
+    @Test
+    public void lookupWithFailedPageFails(){
+
+        failing = true;
+        assertThrows(CompletionException.class,
+                () -> createSource().getLinksAsync(List.of("A"), Direction.forward, new Statistics()).join());
+    }
+
+    @Test
+    public void failedPagesAreNotCached() throws IOException {
+
+        failing = true;
+        CachingLinkSource source = createCachingSource();
+
+        source.streamLinksAsync(List.of("A"), Direction.forward, new Statistics(), (from, to) -> true).join();
+        assertThrows(CompletionException.class,
+                () -> source.getLinksAsync(List.of("A"), Direction.forward, new Statistics()).join());
+
+        /* asked again, not answered by the cache */
+        failing = false;
+        int before = requests.get();
+        assertEquals(List.of("B", "C"), source.getLinks("A", Direction.forward, new Statistics()));
+        assertEquals(before + 2, requests.get());
+
+        /* complete now, so the next one is */
+        assertEquals(List.of("B", "C"), source.getLinks("A", Direction.forward, new Statistics()));
+        assertEquals(before + 2, requests.get());
+    }
+}
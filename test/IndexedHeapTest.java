@@ -0,0 +1,80 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedHeapTest {
+
+    private static Node node(int id, double cost){
+        Node node = new Node(id);
+        node.setCost(cost);
+        return node;
+    }
+
+    private static IndexedHeap createHeap(){
+        return new IndexedHeap(Comparator.comparingDouble(Node::getCost));
+    }
+
+    @Test
+    public void pollsInCostOrder(){
+
+        IndexedHeap heap = createHeap();
+        Random random = new Random(7);
+        List<Double> costs = new ArrayList<>();
+
+        for(int id = 0; id < 1000; id++){
+            double cost = random.nextDouble();
+            costs.add(cost);
+            assertTrue(heap.offer(node(id, cost)));
+        }
+        Collections.sort(costs);
+
+        assertEquals(1000, heap.size());
+        for(double cost : costs){
+            assertEquals(cost, heap.peek().getCost());
+            assertEquals(cost, heap.poll().getCost());
+        }
+        assertNull(heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void decreasesKeyInPlace(){
+
+        IndexedHeap heap = createHeap();
+        for(int id = 0; id < 10; id++){
+            heap.offer(node(id, 10 + id));
+        }
+
+        /* cheaper: the entry moves to the front, no second entry */
+        assertTrue(heap.offer(node(9, 1)));
+        assertEquals(10, heap.size());
+        assertEquals(9, heap.peek().getId());
+        assertEquals(1, heap.peek().getCost());
+
+        /* not cheaper: the entry stays as it is */
+        assertFalse(heap.offer(node(3, 20)));
+        assertFalse(heap.offer(node(3, 13)));
+        assertEquals(10, heap.size());
+
+        List<Integer> order = new ArrayList<>();
+        while(!heap.isEmpty()){
+            order.add(heap.poll().getId());
+        }
+        assertEquals(List.of(9, 0, 1, 2, 3, 4, 5, 6, 7, 8), order);
+    }
+
+    @Test
+    public void rejectsPolledPages(){
+
+        IndexedHeap heap = createHeap();
+        heap.offer(node(1, 5));
+        heap.offer(node(2, 6));
+
+        assertEquals(1, heap.poll().getId());
+        assertFalse(heap.offer(node(1, 0)));
+        assertEquals(1, heap.size());
+        assertEquals(2, heap.poll().getId());
+    }
+}
@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonReaderTest {
+
+    @Test
+    public void readsNestedValues() throws IOException {
+
+        try(JsonReader reader = new JsonReader(new StringReader(
+                "{\"title\": \"Schr\\u00f6dinger's \\\"cat\\\"\", \"ns\": -14, \"skip\": {\"a\": [1, {\"b\": \"}\"}], \"c\": null},"
+                        + " \"flag\": true, \"list\": [\"x\", \"y\"]}"))){
+
+            reader.beginObject();
+
+            assertEquals("title", reader.nextName());
+            assertEquals("Schrödinger's \"cat\"", reader.nextString());
+            assertEquals("ns", reader.nextName());
+            assertEquals(-14, reader.nextInt());
+            assertEquals("skip", reader.nextName());
+            reader.skipValue();
+            assertEquals("flag", reader.nextName());
+            assertEquals("true", reader.nextValueString());
+
+            assertEquals("list", reader.nextName());
+            reader.beginArray();
+            assertEquals("x", reader.nextString());
+            assertTrue(reader.hasNext());
+            assertEquals("y", reader.nextString());
+            assertFalse(reader.hasNext());
+            reader.endArray();
+
+            assertFalse(reader.hasNext());
+            reader.endObject();
+        }
+    }
+
+    @Test
+    public void readsStringsLongerThanTheBuffer() throws IOException {
+
+        String title = "x".repeat(20000);
+        try(JsonReader reader = new JsonReader(new StringReader("[\"" + title + "\", \"end\"]"))){
+            reader.beginArray();
+            assertEquals(title, reader.nextString());
+            assertEquals("end", reader.nextValueString());
+            reader.endArray();
+        }
+    }
+}
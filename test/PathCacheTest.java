@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private static int id(String title){
+        return TitleDictionary.idOf(title);
+    }
+
+    @Test
+    public void everyPartOfAPathIsARoute() throws IOException {
+
+        PathCache cache = new PathCache(directory.resolve("paths.tsv"));
+        cache.add(List.of("Route A", "Route B", "Route C", "Route D"));
+
+        assertEquals(List.of("Route B", "Route C", "Route D"), cache.getRouteTo(id("Route B"), id("Route D")));
+        assertEquals(List.of("Route A", "Route B", "Route C"), cache.getRouteFrom(id("Route A"), id("Route C")));
+
+        /* never the wrong way round */
+        assertNull(cache.getRouteTo(id("Route D"), id("Route A")));
+        assertNull(cache.getRouteFrom(id("Route C"), id("Route A")));
+        assertNull(cache.getRouteTo(id("Route B"), id("Route B")));
+
+        /* read back from the file */
+        PathCache reopened = new PathCache(directory.resolve("paths.tsv"));
+        assertEquals(List.of("Route A", "Route B", "Route C", "Route D"), reopened.getRouteTo(id("Route A"), id("Route D")));
+    }
+
+    @Test
+    public void routesOfOverlappingPathsRunFromStartToEndWithoutCircles() throws IOException {
+
+        PathCache cache = new PathCache(directory.resolve("paths.tsv"));
+        Random random = new Random(3);
+        String[] pages = new String[12];
+        for(int i = 0; i < pages.length; i++){
+            pages[i] = "Overlap " + i;
+        }
+
+        /* links the added paths took */
+        Set<String> links = new HashSet<>();
+        for(int p = 0; p < 200; p++){
+            List<String> path = new ArrayList<>();
+            for(int length = 2 + random.nextInt(5); path.size() < length; ){
+                path.add(pages[random.nextInt(pages.length)]);
+            }
+            path = PathCache.withoutDetours(path);
+            for(int i = 1; i < path.size(); i++){
+                links.add(path.get(i - 1) + ">" + path.get(i));
+            }
+            cache.add(path);
+        }
+
+        for(String from : pages){
+            for(String to : pages){
+                assertRoute(cache.getRouteTo(id(from), id(to)), from, to, links);
+                assertRoute(cache.getRouteFrom(id(from), id(to)), from, to, links);
+            }
+        }
+    }
+
+    private static void assertRoute(List<String> route, String from, String to, Set<String> links){
+
+        if(route == null){
+            return;
+        }
+        assertEquals(from, route.get(0));
+        assertEquals(to, route.get(route.size() - 1));
+        assertEquals(route.size(), new HashSet<>(route).size(), "circle in " + route);
+
+        for(int i = 1; i < route.size(); i++){
+            assertTrue(links.contains(route.get(i - 1) + ">" + route.get(i)), "no such link in " + route);
+        }
+    }
+
+    @Test
+    public void detoursAreCut(){
+        assertEquals(List.of("a", "b", "d"), PathCache.withoutDetours(List.of("a", "b", "c", "b", "d")));
+        assertEquals(List.of("a", "d"), PathCache.withoutDetours(List.of("a", "b", "a", "c", "a", "d")));
+    }
+}
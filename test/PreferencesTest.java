@@ -0,0 +1,36 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PreferencesTest {
+
+    @Test
+    public void astarExpandsOnePageAtATime(){
+
+        Preferences prefs = new Preferences();
+        prefs.setPref("batch_size", "8");
+        prefs.setPref("concurrency", "3");
+        assertEquals(8, prefs.getBatchSize());
+        assertEquals(3, prefs.getConcurrency());
+
+        prefs.setPref("search", "astar");
+        assertEquals(1, prefs.getBatchSize());
+        assertEquals(1, prefs.getConcurrency());
+        assertTrue(prefs.toString().contains("batch_size: 8 (1 with astar)"));
+
+        /* the settings are kept for the other searches */
+        prefs.setPref("search", "gbfs");
+        assertEquals(8, prefs.getBatchSize());
+        assertEquals(3, prefs.getConcurrency());
+    }
+
+    @Test
+    public void valuesAreMappedToTheirRange(){
+
+        Preferences prefs = new Preferences();
+        prefs.setPref("batch_size", "500");
+        prefs.setPref("concurrency", "0");
+        assertEquals(HttpLinkSource.MAX_TITLES, prefs.getBatchSize());
+        assertEquals(1, prefs.getConcurrency());
+    }
+}
@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleDictionaryTest {
+
+    @Test
+    public void idsStayTheSame(){
+
+        int id = TitleDictionary.idOf("Dictionary Test Page");
+        assertEquals(id, TitleDictionary.idOf("Dictionary Test Page"));
+        assertEquals(id, TitleDictionary.lookup("Dictionary Test Page"));
+        assertEquals("Dictionary Test Page", TitleDictionary.titleOf(id));
+    }
+
+    @Test
+    public void resetDropsTitlesAndTellsListeners(){
+
+        AtomicInteger resets = new AtomicInteger();
+        TitleDictionary.onReset(resets::incrementAndGet);
+
+        TitleDictionary.idOf("Dictionary Reset Page");
+        TitleDictionary.reset();
+
+        assertEquals(1, resets.get());
+        assertEquals(0, TitleDictionary.size());
+        assertEquals(-1, TitleDictionary.lookup("Dictionary Reset Page"));
+        assertEquals(0, TitleDictionary.idOf("Dictionary Reset Page"));
+    }
+
+    @Test
+    public void noResetDuringWalk(){
+
+        TitleDictionary.enter();
+        try{
+            assertThrows(RuntimeException.class, TitleDictionary::reset);
+        }finally{
+            TitleDictionary.leave();
+        }
+        TitleDictionary.reset();
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* vectors imported from text and computed from the graph of test/fixtures */
+public class VectorStoreTest {
+
+    private static final Path FIXTURES = Path.of("test", "fixtures");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void importsText() throws IOException {
+
+        Path text = directory.resolve("vectors.txt");
+        Files.writeString(text, "3 4\n"
+                + "ENTITY/Albert_Einstein 3 0 0 4\n"
+                + "ENTITY/Kevin_Bacon 0 2 0 0\n"
+                + "physics 0 0 -1 0\n");
+
+        Path path = directory.resolve("test.vectors");
+        VectorStore.importText(text, path);
+        VectorStore store = new VectorStore(path);
+
+        assertEquals(3, store.getNumberVectors());
+        assertEquals(4, store.getDimension());
+
+        int einstein = store.getRow("Albert Einstein");
+        int bacon = store.getRow("Kevin_Bacon");
+        assertEquals(0, einstein);
+        assertEquals(1, bacon);
+        assertEquals(VectorStore.NONE, store.getRow("Quantum mechanics"));
+
+        /* stored with length 1 */
+        assertArrayEquals(new float[]{0.6f, 0, 0, 0.8f}, store.getVector(einstein), 1e-6f);
+        assertEquals(1.0, store.cosine(store.getVector(einstein), einstein), 1e-6);
+        assertEquals(0.0, store.cosine(store.getVector(einstein), bacon), 1e-6);
+        assertEquals(-1.0, store.cosine(new float[]{0, 0, 1, 0}, store.getRow("physics")), 1e-6);
+    }
+
+    @Test
+    public void rejectsMixedDimensions() throws IOException {
+
+        Path text = directory.resolve("vectors.txt");
+        Files.writeString(text, "A 1 0 0\nB 1 0\n");
+
+        assertThrows(IOException.class, () -> VectorStore.importText(text, directory.resolve("test.vectors")));
+    }
+
+    @Test
+    public void computesFromGraph() throws IOException {
+
+        GraphImporter importer = new GraphImporter();
+        importer.readPages(FIXTURES.resolve("page.sql"));
+        importer.readLinkTargets(FIXTURES.resolve("linktarget.sql"));
+        importer.readPageLinks(FIXTURES.resolve("pagelinks.sql"));
+        importer.readCategoryLinks(FIXTURES.resolve("categorylinks.sql"));
+
+        Path graphFile = directory.resolve("test.graph");
+        importer.write(graphFile);
+        WikiGraph graph = new WikiGraph(graphFile);
+
+        VectorStore.compute(graph, 16, 42, VectorStore.getPath(graphFile));
+        VectorStore store = new VectorStore(VectorStore.getPath(graphFile));
+
+        assertEquals(graph.getNumberPages(), store.getNumberVectors());
+        assertEquals(16, store.getDimension());
+
+        for(int id = 0; id < graph.getNumberPages(); id++){
+            int row = store.getRow(graph.getTitle(id));
+            assertEquals(id, row);
+            assertEquals(1.0, store.cosine(store.getVector(row), row), 1e-5);
+        }
+
+        /* the same seed gives the same vectors */
+        byte[] first = Files.readAllBytes(VectorStore.getPath(graphFile));
+        VectorStore.compute(graph, 16, 42, VectorStore.getPath(graphFile));
+        assertArrayEquals(first, Files.readAllBytes(VectorStore.getPath(graphFile)));
+    }
+}
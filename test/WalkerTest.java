@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* walks on small graphs held in memory */
+public class WalkerTest {
+
+    /* links given as "from>to", forward lookups of the slow pages take a while */
+    private static class MemoryGraph implements LinkSource {
+
+        private final Map<String, List<String>> forward = new HashMap<>();
+        private final Map<String, List<String>> backward = new HashMap<>();
+        private final Set<String> slow;
+
+        private MemoryGraph(Set<String> slow, String... links){
+            this.slow = slow;
+
+            for(String link : links){
+                String[] pages = link.split(">");
+                forward.computeIfAbsent(pages[0], page -> new ArrayList<>()).add(pages[1]);
+                backward.computeIfAbsent(pages[1], page -> new ArrayList<>()).add(pages[0]);
+                forward.computeIfAbsent(pages[1], page -> new ArrayList<>());
+                backward.computeIfAbsent(pages[0], page -> new ArrayList<>());
+            }
+        }
+
+        @Override
+        public boolean pageExists(String title){
+            return forward.containsKey(title);
+        }
+
+        @Override
+        public List<String> getLinks(String title, Direction direction, Statistics stats){
+            stats.countRequest();
+            return new ArrayList<>((direction == Direction.forward ? forward : backward).getOrDefault(title, List.of()));
+        }
+
+        @Override
+        public List<String> getCategories(String title, Statistics stats){
+            return new ArrayList<>();
+        }
+
+        @Override
+        public CompletableFuture<Map<String, List<String>>> getLinksAsync(Collection<String> titles, Direction direction, Statistics stats){
+
+            if(direction == Direction.forward && titles.stream().anyMatch(slow::contains)){
+                return CompletableFuture.supplyAsync(() -> getLinks(titles, direction, stats),
+                        CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS));
+            }
+            return CompletableFuture.completedFuture(getLinks(titles, direction, stats));
+        }
+    }
+
+    private static Preferences createPreferences(String search, String searchDirection){
+
+        Preferences prefs = new Preferences();
+        prefs.setPref("verbose", "false");
+        prefs.setPref("search", search);
+        prefs.setPref("search_dir", searchDirection);
+        prefs.setPref("seed", "1");
+        return prefs;
+    }
+
+    private static List<String> walk(LinkSource source, String search, String searchDirection, String from, String to){
+        Walker walker = new Walker(createPreferences(search, searchDirection), new Statistics(), source, from, to, false);
+        return walker.isFound() ? walker.getPath() : null;
+    }
+
+    @Test
+    public void findsChainInEveryDirection(){
+
+        MemoryGraph graph = new MemoryGraph(Set.of(), "S>A", "A>B", "B>E");
+
+        for(String direction : List.of("uni", "bi", "balanced")){
+            assertEquals(List.of("S", "A", "B", "E"), walk(graph, "bfs", direction, "S", "E"), direction);
+        }
+    }
+
+    /* the backward side explores A before the forward side looks at its links: that's where they meet */
+    @Test
+    public void bidirectionalMeetsOnPageExploredByTheOtherSide(){
+
+        MemoryGraph graph = new MemoryGraph(Set.of("A"), "S>A", "A>B", "B>E");
+
+        for(String direction : List.of("uni", "bi", "balanced")){
+            assertEquals(List.of("S", "A", "B", "E"), walk(graph, "bfs", direction, "S", "E"), direction);
+        }
+    }
+
+    @Test
+    public void bidirectionalPathRunsFromStartToEnd(){
+
+        MemoryGraph graph = new MemoryGraph(Set.of(), "S>A", "A>B", "B>C", "C>D", "D>E", "E>F", "F>G", "G>H", "H>S");
+
+        List<String> path = walk(graph, "gbfs", "bi", "S", "H");
+        assertNotNull(path);
+        assertEquals("S", path.get(0));
+        assertEquals("H", path.get(path.size() - 1));
+    }
+}
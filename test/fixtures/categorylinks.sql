@@ -0,0 +1,16 @@
+-- MySQL dump 10.19  Distrib 10.3.38-MariaDB, for debian-linux-gnu (x86_64)
+
+DROP TABLE IF EXISTS `categorylinks`;
+CREATE TABLE `categorylinks` (
+  `cl_from` int(8) unsigned NOT NULL DEFAULT 0,
+  `cl_sortkey` varbinary(230) NOT NULL DEFAULT '',
+  `cl_sortkey_prefix` varbinary(255) NOT NULL DEFAULT '',
+  `cl_type` enum('page','subcat','file') NOT NULL DEFAULT 'page',
+  `cl_timestamp` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp(),
+  `cl_collation_id` smallint(5) unsigned NOT NULL DEFAULT 0,
+  `cl_target_id` bigint(20) unsigned NOT NULL,
+  PRIMARY KEY (`cl_from`,`cl_target_id`),
+  KEY `cl_timestamp_id` (`cl_target_id`,`cl_type`,`cl_timestamp`)
+) ENGINE=InnoDB DEFAULT CHARSET=binary;
+
+INSERT INTO `categorylinks` VALUES (1,'EINSTEIN, ALBERT','','page','2024-01-01 00:00:00',1,4),(2,'BACON, KEVIN','','page','2024-01-01 00:00:00',1,5),(4,'ALBERT EINSTEIN','','page','2024-01-01 00:00:00',1,4);
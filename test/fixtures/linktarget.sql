@@ -0,0 +1,12 @@
+-- MySQL dump 10.19  Distrib 10.3.38-MariaDB, for debian-linux-gnu (x86_64)
+
+DROP TABLE IF EXISTS `linktarget`;
+CREATE TABLE `linktarget` (
+  `lt_id` bigint(20) unsigned NOT NULL AUTO_INCREMENT,
+  `lt_namespace` int(11) NOT NULL,
+  `lt_title` varbinary(255) NOT NULL,
+  PRIMARY KEY (`lt_id`),
+  UNIQUE KEY `lt_namespace_title` (`lt_namespace`,`lt_title`)
+) ENGINE=InnoDB AUTO_INCREMENT=8 DEFAULT CHARSET=binary;
+
+INSERT INTO `linktarget` VALUES (1,0,'Kevin_Bacon'),(2,0,'Physics'),(3,0,'Missing_Page'),(4,14,'Physicists'),(5,14,'Actors'),(6,1,'Albert_Einstein'),(7,0,'Schrödinger\'s_cat');
@@ -0,0 +1,25 @@
+-- MySQL dump 10.19  Distrib 10.3.38-MariaDB, for debian-linux-gnu (x86_64)
+--
+-- Host: db1206    Database: enwiki
+-- ------------------------------------------------------
+
+DROP TABLE IF EXISTS `page`;
+CREATE TABLE `page` (
+  `page_id` int(8) unsigned NOT NULL AUTO_INCREMENT,
+  `page_namespace` int(11) NOT NULL DEFAULT 0,
+  `page_title` varbinary(255) NOT NULL DEFAULT '',
+  `page_is_redirect` tinyint(1) unsigned NOT NULL DEFAULT 0,
+  `page_is_new` tinyint(1) unsigned NOT NULL DEFAULT 0,
+  `page_random` double unsigned NOT NULL DEFAULT 0,
+  `page_touched` binary(14) NOT NULL,
+  `page_links_updated` varbinary(14) DEFAULT NULL,
+  `page_latest` int(8) unsigned NOT NULL DEFAULT 0,
+  `page_len` int(8) unsigned NOT NULL DEFAULT 0,
+  `page_content_model` varbinary(32) DEFAULT NULL,
+  `page_lang` varbinary(35) DEFAULT NULL,
+  PRIMARY KEY (`page_id`),
+  UNIQUE KEY `page_name_title` (`page_namespace`,`page_title`)
+) ENGINE=InnoDB AUTO_INCREMENT=7 DEFAULT CHARSET=binary;
+
+INSERT INTO `page` VALUES (1,0,'Albert_Einstein',0,0,0.1,'20240101000000','20240101000000',11,100,'wikitext',NULL),(2,0,'Kevin_Bacon',0,0,0.2,'20240101000000','20240101000000',12,100,'wikitext',NULL),(3,0,'Physics',0,0,0.3,'20240101000000',NULL,13,100,'wikitext',NULL);
+INSERT INTO `page` VALUES (4,1,'Albert_Einstein',0,0,0.4,'20240101000000','20240101000000',14,100,'wikitext',NULL),(5,14,'Physicists',0,0,0.5,'20240101000000','20240101000000',15,100,'wikitext',NULL),(6,0,'Schrödinger\'s_cat',0,0,0.6,'20240101000000','20240101000000',16,100,'wikitext',NULL);